@@ -0,0 +1,73 @@
+package hearsilent.discreteslider.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+
+import hearsilent.discreteslider.libs.Trajectory;
+
+/**
+ * The focal point work {@code MoveGestureDetector} does per move event: averaging the
+ * pointers of every batched sample into the trajectory, and the release velocity fitted
+ * over it. {@code MotionEvent} only exists on a device, so the samples come from arrays.
+ */
+@State(Scope.Thread)
+public class FocalPointBenchmark {
+
+	// The same as MoveGestureDetector.
+	private static final int TRAJECTORY_CAPACITY = 32;
+	private static final long VELOCITY_WINDOW = 100;
+
+	private static final int EVENTS = 256;
+
+	@Param({"1", "2", "5"})
+	public int pointers;
+
+	@Param({"1", "4"})
+	public int history;
+
+	private Trajectory mTrajectory = new Trajectory(TRAJECTORY_CAPACITY);
+	private float[] mXs, mYs;
+	private long mTime;
+	private int mEvent;
+
+	@Setup
+	public void setUp() {
+		int size = EVENTS * history * pointers;
+		mXs = new float[size];
+		mYs = new float[size];
+		Random random = new Random(22);
+		for (int i = 0; i < size; i++) {
+			mXs[i] = random.nextFloat() * 1080;
+			mYs[i] = random.nextFloat() * 1920;
+		}
+	}
+
+	@Benchmark
+	public Trajectory addFocalSamples() {
+		int offset = mEvent * history * pointers;
+		mEvent = (mEvent + 1) % EVENTS;
+		for (int h = 0; h < history; h++) {
+			float x = 0f;
+			float y = 0f;
+			for (int i = 0; i < pointers; i++) {
+				x += mXs[offset];
+				y += mYs[offset++];
+			}
+			// A 240 Hz digitizer.
+			mTime += 4;
+			mTrajectory.add(mTime, x / pointers, y / pointers);
+		}
+		return mTrajectory;
+	}
+
+	@Benchmark
+	public float velocity() {
+		addFocalSamples();
+		return mTrajectory.getVelocityX(VELOCITY_WINDOW);
+	}
+}
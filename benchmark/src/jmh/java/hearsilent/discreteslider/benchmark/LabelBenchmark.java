@@ -0,0 +1,58 @@
+package hearsilent.discreteslider.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import hearsilent.discreteslider.libs.LabelCache;
+import hearsilent.discreteslider.libs.LabelFormat;
+
+/**
+ * Value label formatting of the default formatter, and the label cache that keeps it off
+ * the draw path. The cache has the capacity the slider uses.
+ */
+@State(Scope.Thread)
+public class LabelBenchmark {
+
+	private static final int CAPACITY = 32;
+
+	private LabelCache mCache = new LabelCache(CAPACITY);
+	private int mValue;
+
+	@Setup
+	public void setUp() {
+		for (int i = 0; i < CAPACITY; i++) {
+			mCache.put(i, LabelFormat.format(i), 0, -12, 8 * i, 4);
+		}
+	}
+
+	@Benchmark
+	public String format_int() {
+		return LabelFormat.format(mValue++ & 1023);
+	}
+
+	@Benchmark
+	public String format_float() {
+		// The continuous labels of a slider with a precision of 0.01.
+		return LabelFormat.format((mValue++ & 1023) / 100f, 2);
+	}
+
+	@Benchmark
+	public String cache_hit() {
+		return mCache.getLabel(mCache.indexOf(mValue++ & (CAPACITY - 1)));
+	}
+
+	/**
+	 * Every lookup misses, so it formats and evicts the least recently used entry.
+	 */
+	@Benchmark
+	public int cache_miss() {
+		int key = mValue++;
+		int index = mCache.indexOf(key);
+		if (index == -1) {
+			index = mCache.put(key, LabelFormat.format(key), 0, -12, 24, 4);
+		}
+		return index;
+	}
+}
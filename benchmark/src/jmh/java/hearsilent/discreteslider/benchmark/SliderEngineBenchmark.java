@@ -0,0 +1,62 @@
+package hearsilent.discreteslider.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+
+import hearsilent.discreteslider.libs.SliderEngine;
+
+/**
+ * A whole drag through the engine as the view drives it: down, a series of moves each
+ * followed by the state update, and the release. One operation is one touch event.
+ */
+@State(Scope.Thread)
+public class SliderEngineBenchmark {
+
+	private static final int MOVES = 30;
+
+	@Param({"10", "1000", "1000000"})
+	public int count;
+
+	@Param({"false", "true"})
+	public boolean range;
+
+	private SliderEngine mEngine = new SliderEngine();
+	private float[] mDeltas = new float[MOVES];
+
+	@Setup
+	public void setUp() {
+		mEngine.setGeometry(16, 12, 1048);
+		mEngine.setCount(count, null);
+		mEngine.setRange(range);
+		mEngine.setProgress(count / 4, count - count / 4);
+
+		Random random = new Random(22);
+		for (int i = 0; i < MOVES; i++) {
+			mDeltas[i] = random.nextFloat() * 40 - 20;
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(MOVES + 2)
+	public int drag() {
+		int progress = mEngine.getMinProgress();
+		mEngine.down(mEngine.getPosition(progress, false));
+		mEngine.press(false);
+		int changed = 0;
+		for (float delta : mDeltas) {
+			mEngine.move(delta);
+			changed |= mEngine.update();
+		}
+		mEngine.up(mEngine.getPosition(progress, true), 0);
+		// Put the thumb back, so that every invocation drags from the same tick.
+		mEngine.setOffset(0);
+		mEngine.setPendingPosition(-1);
+		return changed + mEngine.getReleasePosition();
+	}
+}
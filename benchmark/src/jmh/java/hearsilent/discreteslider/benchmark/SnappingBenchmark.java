@@ -0,0 +1,85 @@
+package hearsilent.discreteslider.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+
+import hearsilent.discreteslider.TickPositions;
+import hearsilent.discreteslider.libs.TickSnapper;
+
+/**
+ * Position mapping and closest tick lookup, for evenly spaced ticks and for a fraction
+ * table, across tick counts from 10 to 10^6.
+ */
+@State(Scope.Thread)
+public class SnappingBenchmark {
+
+	private static final float ORIGIN = 16, RADIUS = 12, LENGTH = 1048;
+	private static final int SAMPLES = 1024;
+
+	@Param({"10", "1000", "100000", "1000000"})
+	public int count;
+
+	private float mStep;
+	private float[] mFractions;
+	private float[] mPositions = new float[SAMPLES];
+	private int[] mIndexes = new int[SAMPLES];
+	private int mCursor;
+
+	@Setup
+	public void setUp() {
+		mStep = LENGTH / (count - 1);
+		TickPositions positions = TickPositions.logarithmic();
+		double last = positions.getPosition(count - 1, count);
+		mFractions = new float[count];
+		for (int i = 0; i < count; i++) {
+			mFractions[i] = (float) (positions.getPosition(i, count) / last);
+		}
+		mFractions[count - 1] = 1;
+
+		Random random = new Random(22);
+		for (int i = 0; i < SAMPLES; i++) {
+			// Include touches just outside of the track.
+			mPositions[i] = ORIGIN + random.nextFloat() * (LENGTH + RADIUS * 4) - RADIUS;
+			mIndexes[i] = random.nextInt(count);
+		}
+	}
+
+	private int next() {
+		return mCursor = (mCursor + 1) & (SAMPLES - 1);
+	}
+
+	@Benchmark
+	public float position_linear() {
+		return TickSnapper.getPosition(ORIGIN, RADIUS, mStep, mIndexes[next()]);
+	}
+
+	@Benchmark
+	public float position_fractions() {
+		return TickSnapper.getPosition(ORIGIN, RADIUS, LENGTH, mFractions, mIndexes[next()]);
+	}
+
+	@Benchmark
+	public int closest_linear() {
+		return TickSnapper.getClosestIndex(mPositions[next()], ORIGIN, RADIUS, mStep, count);
+	}
+
+	@Benchmark
+	public int closest_fractions() {
+		return TickSnapper.getClosestIndex(mPositions[next()], ORIGIN, RADIUS, LENGTH, mFractions);
+	}
+
+	@Benchmark
+	public int ceil_linear() {
+		return TickSnapper.getCeilIndex(mPositions[next()], ORIGIN, RADIUS, mStep, count);
+	}
+
+	@Benchmark
+	public int ceil_fractions() {
+		return TickSnapper.getCeilIndex(mPositions[next()], ORIGIN, RADIUS, LENGTH, mFractions);
+	}
+}
@@ -0,0 +1,58 @@
+package hearsilent.discreteslider.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Arrays;
+import java.util.List;
+
+import hearsilent.discreteslider.Dash;
+import hearsilent.discreteslider.Dot;
+import hearsilent.discreteslider.TickMarkPattern;
+
+/**
+ * Resolving tick mark patterns from {@code ds_tickMarkPatterns}, from {@link Dot} and
+ * {@link Dash} lists and for a tick mark step.
+ */
+@State(Scope.Thread)
+public class TickMarkPatternBenchmark {
+
+	private static final String PATTERNS = "dot,dash,dash,Dot,unknown,dash";
+
+	private List<Object> mList;
+	private TickMarkPattern mPattern;
+
+	@Setup
+	public void setUp() {
+		mList = Arrays.<Object>asList(new Dot(), new Dash(4), new Dash(2), new Dot());
+		mPattern = TickMarkPattern.parse(PATTERNS, 4);
+	}
+
+	@Benchmark
+	public TickMarkPattern parse() {
+		return TickMarkPattern.parse(PATTERNS, 4);
+	}
+
+	@Benchmark
+	public TickMarkPattern fromList() {
+		return TickMarkPattern.fromList(mList);
+	}
+
+	@Benchmark
+	public TickMarkPattern forStep() {
+		return mPattern.forStep(4);
+	}
+
+	@Benchmark
+	public int kindLookup() {
+		int dashes = 0;
+		for (int i = 0; i < 64; i++) {
+			if (mPattern.getKind(i % mPattern.size()) == TickMarkPattern.DASH) {
+				dashes++;
+			}
+		}
+		return dashes;
+	}
+}
@@ -2,30 +2,36 @@ package hearsilent.discreteslider;
 
 import android.animation.Animator;
 import android.animation.AnimatorListenerAdapter;
+import android.animation.TimeInterpolator;
 import android.animation.ValueAnimator;
 import android.content.Context;
-import android.content.res.TypedArray;
+import android.content.res.Configuration;
+import android.graphics.Bitmap;
 import android.graphics.Canvas;
 import android.graphics.Color;
-import android.graphics.Matrix;
 import android.graphics.Paint;
 import android.graphics.Path;
 import android.graphics.PointF;
 import android.graphics.Rect;
 import android.graphics.RectF;
-import android.os.Handler;
+import android.graphics.Typeface;
+import android.os.Build;
+import android.os.SystemClock;
 import android.text.TextUtils;
 import android.util.AttributeSet;
+import android.util.DisplayMetrics;
+import android.view.Choreographer;
 import android.view.HapticFeedbackConstants;
 import android.view.MotionEvent;
 import android.view.View;
+import android.view.ViewConfiguration;
 import android.view.ViewParent;
 import android.view.animation.AccelerateInterpolator;
 import android.view.animation.DecelerateInterpolator;
 
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
-import java.util.ArrayList;
+import java.math.BigDecimal;
 import java.util.List;
 
 import androidx.annotation.ColorInt;
@@ -34,7 +40,15 @@ import androidx.annotation.IntDef;
 import androidx.annotation.IntRange;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import hearsilent.discreteslider.libs.DecayInterpolator;
+import hearsilent.discreteslider.libs.LabelCache;
+import hearsilent.discreteslider.libs.LabelFormat;
+import hearsilent.discreteslider.libs.LayerCache;
 import hearsilent.discreteslider.libs.MoveGestureDetector;
+import hearsilent.discreteslider.libs.SliderEngine;
+import hearsilent.discreteslider.libs.SliderTrace;
+import hearsilent.discreteslider.libs.TickSnapper;
+import hearsilent.discreteslider.libs.Trajectory;
 import hearsilent.discreteslider.libs.Utils;
 
 public class DiscreteSlider extends View {
@@ -50,11 +64,59 @@ public class DiscreteSlider extends View {
 	public static final int MODE_NORMAL = 0;
 	public static final int MODE_RANGE = 1;
 
+	// cos/sin of the value label bubble (135 + gravity) and neck (-45 + gravity) angles,
+	// indexed by gravity / 90.
+	private static final float[] COS_BUBBLE = new float[4], SIN_BUBBLE = new float[4];
+	private static final float[] COS_NECK = new float[4], SIN_NECK = new float[4];
+
+	static {
+		for (int i = 0; i < 4; i++) {
+			COS_BUBBLE[i] = (float) Math.cos(Math.toRadians(135 + i * 90));
+			SIN_BUBBLE[i] = (float) Math.sin(Math.toRadians(135 + i * 90));
+			COS_NECK[i] = (float) Math.cos(Math.toRadians(-45 + i * 90));
+			SIN_NECK[i] = (float) Math.sin(Math.toRadians(-45 + i * 90));
+		}
+	}
+
+	private static final TimeInterpolator OFFSET_INTERPOLATOR = new DecelerateInterpolator(2.5f);
+	private static final DecayInterpolator FLING_INTERPOLATOR = new DecayInterpolator(4f);
+	private static final TimeInterpolator VALUE_LABEL_SHOW_INTERPOLATOR =
+			new AccelerateInterpolator();
+	private static final TimeInterpolator VALUE_LABEL_HIDE_INTERPOLATOR =
+			new DecelerateInterpolator();
+
+	private static final long FLING_MIN_DURATION = 150, FLING_MAX_DURATION = 800;
+	private static final long FLING_MAX_REST = 50;
+
+	private static final ValueLabelFormatter DEFAULT_VALUE_LABEL_FORMATTER =
+			new ValueLabelFormatter() {
+
+				@Override
+				public String getLabel(int input) {
+					return LabelFormat.format(input);
+				}
+
+				@Override
+				public String getLabel(float input) {
+					return LabelFormat.format(input);
+				}
+			};
+
+	// Immutable drawing resources shared by all sliders, only touched from the main thread.
+	private static final LayerCache TICK_MARK_LAYERS = new LayerCache();
+	private static final Canvas TICK_MARK_LAYER_CANVAS = new Canvas();
+	private static final Path[] VALUE_LABEL_PATHS = new Path[4];
+	private static final float[] VALUE_LABEL_PATH_DENSITIES = new float[4];
+	// Scratch geometry which no call keeps beyond its return, shared instead of per slider.
+	private static final RectF DYNAMIC_BOUNDS = new RectF();
+	private static final Rect DIRTY_BOUNDS = new Rect(), CLIP_BOUNDS = new Rect();
+	private static final Rect TEXT_BOUNDS = new Rect();
+
 	private Paint mPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
 	private RectF mRectF = new RectF();
 
-	private float mOffset = 0f;
-	private float mMinOffset, mMaxOffset;
+	// Snapping, bounds and the touch state, fed with this view's geometry and touch events.
+	private SliderEngine mEngine = new SliderEngine();
 
 	private float mRadius, mTrackWidth;
 
@@ -63,17 +125,35 @@ public class DiscreteSlider extends View {
 	private int mThumbColor;
 	private int mThumbPressedColor;
 
-	private List<Object> mTickMarkPatterns;
+	// The pattern and the pattern as seen by every mTickMarkStep-th tick, null for none.
+	@Nullable private TickMarkPattern mTickMarkPattern, mStepTickMarkPattern;
 	private int mTickMarkColor;
 	private int mTickMarkInactiveColor;
 	private int mTickMarkStep;
 
+	// Alpha mask of all tick marks, tinted with the active and inactive colors while drawing.
+	// Attached sliders with the same tick geometry share it through TICK_MARK_LAYERS, others
+	// like one only drawn into a snapshot keep a private one.
+	private Bitmap mTickMarkLayer;
+	private boolean mTickMarkLayerShared;
+	private boolean mTickMarkLayerInvalid = true;
+	private float mTickMarkMinSpacing = 1;
+	private int mTickMarkLayerOrigin;
+	private float mTickMarkLayerLength, mTickMarkLayerCenter;
+
 	private int mValueLabelTextColor;
 
 	private int mCount;
+	// Continuous mode maps the mCount progress steps evenly onto [mValueFrom, mValueTo].
+	private boolean mContinuous;
+	private float mValueFrom, mValueTo;
+	private int mValueDecimals;
+	private double mValueScale;
+	private int mTickMarkCount;
+	private TickPositions mTickPositions = TickPositions.LINEAR;
+	// Tick positions as fractions of the track length, null for evenly spaced ticks.
+	@Nullable private float[] mTickFractions;
 	private int mProgressOffset = 0;
-	private int mMinProgress = 0, mTmpMinProgress = 0, mMaxProgress = -1, mTmpMaxProgress = -1;
-	private int mPendingPosition = -1, mPressedPosition = -1;
 
 	@Mode private int mMode = MODE_NORMAL;
 
@@ -82,24 +162,63 @@ public class DiscreteSlider extends View {
 	private MoveGestureDetector mMoveDetector;
 	private float mValueLabelTextSize;
 	private ValueLabelFormatter mValueLabelFormatter;
-	private Rect mBounds = new Rect();
-	private Path mValueLabelPath = new Path();
+	// Created with the first label, sliders in a list are mostly never dragged.
+	@Nullable private LabelCache mValueLabelCache;
+	private Path mValueLabelPath;
+	private boolean mValueLabelPathInvalid = true;
 	private ValueAnimator mValueLabelAnimator;
-	private Matrix mValueLabelMatrix = new Matrix();
+	private ValueAnimator mOffsetAnimator;
+	private int mSettlePosition = -1;
+	private boolean mSettleWaitsForValueLabel;
+	// The listener already heard where the settling thumb lands, the ticks it passes are stale.
+	private boolean mSettleDispatched;
 	private float mValueLabelAnimValue = 0f;
 	@ValueLabelGravity private int mValueLabelGravity;
 	private int mValueLabelMode = 1;
 	private int mValueLabelDuration = 1500;
-	private Handler mShowValueLabelHandler = new Handler();
+	private Runnable mHideValueLabelRunnable;
 	private boolean mValueLabelIsShowing = false;
 
-	private boolean mSkipMove;
-
 	private float mLength;
+
+	private Rect mDrawnDynamicBounds = new Rect();
+	private long mLastDrawnArea;
+
+	// Density dependent dimensions used while drawing, refreshed when the density changes.
+	private int mDensityDpi;
+	private float mDp1, mDp6, mDp16;
 	@OrientationMode private int mOrientation;
 
+	private boolean mFrameSyncEnabled;
+	private boolean mFlingEnabled;
+	private float mMinFlingVelocity;
+	private boolean mDragFrameScheduled;
+	private Choreographer.FrameCallback mDragFrameCallback;
+
+	// Tick haptics are coalesced into at most one pulse per frame by mHapticRunnable.
+	private int mHapticMinInterval;
+	private boolean mHapticVelocityAware;
+	private boolean mHapticQueued;
+	private int mHapticTicks;
+	private long mLastHapticTime;
+	private Runnable mHapticRunnable;
+
 	private OnValueChangedListener mListener;
-	private boolean mValueChangedImmediately = false;
+	private DispatchPolicy mDispatchPolicy = DispatchPolicy.ON_RELEASE;
+	// The latest intermediate change, waiting for mDispatchRunnable. -1 max for normal mode.
+	private boolean mValueChangedQueued;
+	private int mQueuedMinProgress, mQueuedMaxProgress;
+	private long mLastDispatchTime;
+	private Runnable mDispatchRunnable;
+
+	// Only allocated while a metrics listener is set, the counters of the current frame.
+	@Nullable private SliderMetrics mMetrics;
+	// The counters of the last drawn frame, waiting for mMetricsRunnable.
+	private SliderMetrics mMetricsReport;
+	private boolean mMetricsQueued;
+	private OnMetricsListener mMetricsListener;
+	@Nullable private TouchRecording mTouchRecording;
+	private Runnable mMetricsRunnable;
 
 	@IntDef({MODE_NORMAL, MODE_RANGE}) @Retention(RetentionPolicy.SOURCE) private @interface Mode {
 
@@ -132,94 +251,50 @@ public class DiscreteSlider extends View {
 
 	private void init(Context context, @Nullable AttributeSet attrs) {
 		mPaint.setStyle(Paint.Style.FILL);
+		updateDimensions();
 
 		if (attrs != null) {
-			TypedArray a = context.obtainStyledAttributes(attrs, R.styleable.DiscreteSlider);
-
-			mTrackWidth = a.getDimension(R.styleable.DiscreteSlider_ds_trackWidth,
-					Utils.convertDpToPixel(4, getContext()));
-			mTrackWidth = Math.max(mTrackWidth, Float.MIN_VALUE);
-			mTrackColor = a.getColor(R.styleable.DiscreteSlider_ds_trackColor, 0xff5123da);
-			mInactiveTrackColor =
-					a.getColor(R.styleable.DiscreteSlider_ds_inactiveTrackColor, 0x3d5123da);
-
-			mRadius = a.getDimension(R.styleable.DiscreteSlider_ds_thumbRadius,
-					Utils.convertDpToPixel(6, getContext()));
-			mRadius = Math.max(mRadius, Float.MIN_VALUE);
-			mThumbColor = a.getColor(R.styleable.DiscreteSlider_ds_thumbColor, 0xff5123da);
-			mThumbPressedColor =
-					a.getColor(R.styleable.DiscreteSlider_ds_thumbPressedColor, 0x1f5123da);
-
-			mTickMarkColor = a.getColor(R.styleable.DiscreteSlider_ds_tickMarkColor, 0xff9972ed);
-			mTickMarkInactiveColor =
-					a.getColor(R.styleable.DiscreteSlider_ds_tickMarkInactiveColor, 0xff936ce2);
-			mTickMarkStep = a.getInteger(R.styleable.DiscreteSlider_ds_tickMarkStep, 1);
-
-			mValueLabelTextColor =
-					a.getColor(R.styleable.DiscreteSlider_ds_valueLabelTextColor, Color.WHITE);
-			mValueLabelTextSize = a.getDimension(R.styleable.DiscreteSlider_ds_valueLabelTextSize,
-					Utils.convertSpToPixel(16, context));
-			mValueLabelGravity = a.getInt(R.styleable.DiscreteSlider_ds_valueLabelGravity, TOP);
-			mValueLabelMode = a.getInt(R.styleable.DiscreteSlider_ds_valueLabelMode, 1);
-			mValueLabelDuration = a.getInt(R.styleable.DiscreteSlider_ds_valueLabelDuration, 1500);
-			mValueLabelDuration = Math.max(mValueLabelDuration, 500);
-
-			mCount = a.getInt(R.styleable.DiscreteSlider_ds_count, 11);
-			mCount = Math.max(mCount, 2);
-			mMode = a.getInt(R.styleable.DiscreteSlider_ds_mode, MODE_NORMAL);
-
-			if (1 > mTickMarkStep || (mCount - 1) % mTickMarkStep != 0) {
-				mTickMarkStep = 1;
-			}
+			ResolvedStyle style = ResolvedStyle.obtain(context, attrs);
 
-			mProgressOffset = a.getInt(R.styleable.DiscreteSlider_ds_progressOffset, 0);
-			mTmpMinProgress = mMinProgress = a.getInt(R.styleable.DiscreteSlider_ds_progress,
-					a.getInt(R.styleable.DiscreteSlider_ds_minProgress, 0));
-			if (mMode == MODE_NORMAL) {
-				mTmpMaxProgress = mMaxProgress = -1;
-			} else {
-				mTmpMaxProgress = mMaxProgress =
-						a.getInt(R.styleable.DiscreteSlider_ds_maxProgress, mCount - 1);
-			}
+			mTrackWidth = style.trackWidth;
+			mTrackColor = style.trackColor;
+			mInactiveTrackColor = style.inactiveTrackColor;
 
-			if (a.hasValue(R.styleable.DiscreteSlider_ds_tickMarkPatterns)) {
-				String patterns = a.getString(R.styleable.DiscreteSlider_ds_tickMarkPatterns);
-				if (!TextUtils.isEmpty(patterns)) {
-					float length = a.getDimension(R.styleable.DiscreteSlider_ds_tickMarkDashLength,
-							Utils.convertDpToPixel(1, context));
-					mTickMarkPatterns = new ArrayList<>();
-					if (patterns.contains(",")) {
-						for (String pattern : patterns.split(",")) {
-							if (pattern.equalsIgnoreCase("dot")) {
-								mTickMarkPatterns.add(new Dot());
-							} else if (pattern.equalsIgnoreCase("dash")) {
-								mTickMarkPatterns.add(new Dash(length));
-							}
-						}
-					} else {
-						if (patterns.equalsIgnoreCase("dot")) {
-							mTickMarkPatterns.add(new Dot());
-						} else if (patterns.equalsIgnoreCase("dash")) {
-							mTickMarkPatterns.add(new Dash(length));
-						}
-					}
-				}
-				generateInactiveTrackPath();
-			}
+			mRadius = style.radius;
+			mThumbColor = style.thumbColor;
+			mThumbPressedColor = style.thumbPressedColor;
 
-			mOrientation = a.getInt(R.styleable.DiscreteSlider_ds_orientation, HORIZONTAL);
+			mTickMarkColor = style.tickMarkColor;
+			mTickMarkInactiveColor = style.tickMarkInactiveColor;
+			mTickMarkStep = style.tickMarkStep;
+			mTickMarkMinSpacing = style.tickMarkMinSpacing;
 
-			if (mOrientation == HORIZONTAL &&
-					(mValueLabelGravity != TOP && mValueLabelGravity != BOTTOM)) {
-				mValueLabelGravity = TOP;
-			} else if (mOrientation == VERTICAL &&
-					(mValueLabelGravity != RIGHT && mValueLabelGravity != LEFT)) {
-				mValueLabelGravity = RIGHT;
+			mValueLabelTextColor = style.valueLabelTextColor;
+			mValueLabelTextSize = style.valueLabelTextSize;
+			mValueLabelGravity = style.valueLabelGravity;
+			mValueLabelMode = style.valueLabelMode;
+			mValueLabelDuration = style.valueLabelDuration;
+
+			mCount = style.count;
+			mMode = style.mode;
+
+			mProgressOffset = style.progressOffset;
+			mEngine.setCount(mCount, null);
+			mEngine.setRange(mMode == MODE_RANGE);
+			mEngine.setProgress(style.minProgress, style.maxProgress);
+
+			if (style.hasTickMarkPatterns) {
+				mTickMarkPattern = style.tickMarkPattern;
+				generateInactiveTrackPath();
 			}
 
-			setMode(mMode);
+			mOrientation = style.orientation;
+			mFrameSyncEnabled = style.frameSync;
+			mFlingEnabled = style.fling;
+			mHapticMinInterval = style.hapticMinInterval;
+			mHapticVelocityAware = style.hapticVelocityAware;
 
-			a.recycle();
+			setMode(mMode);
 		} else {
 			mTrackWidth = Utils.convertDpToPixel(4, context);
 			mTrackColor = 0xff5123da;
@@ -240,17 +315,30 @@ public class DiscreteSlider extends View {
 			mOrientation = HORIZONTAL;
 
 			mCount = 11;
+			mEngine.setCount(mCount, null);
 		}
 
-		setValueLabelFormatter(new ValueLabelFormatter() {
+		mValueLabelFormatter = DEFAULT_VALUE_LABEL_FORMATTER;
 
-			@Override
-			public String getLabel(int input) {
-				return Integer.toString(input);
-			}
-		});
+		mMinFlingVelocity = ViewConfiguration.get(context).getScaledMinimumFlingVelocity();
+	}
 
-		mMoveDetector = new MoveGestureDetector(context, new MoveListener());
+	private void updateDimensions() {
+		DisplayMetrics metrics = Utils.getDisplayMetrics(getContext());
+		mDensityDpi = metrics.densityDpi;
+		mDp1 = Utils.convertDpToPixel(1, metrics);
+		mDp6 = Utils.convertDpToPixel(6, metrics);
+		mDp16 = Utils.convertDpToPixel(16, metrics);
+	}
+
+	@Override
+	protected void onConfigurationChanged(Configuration newConfig) {
+		super.onConfigurationChanged(newConfig);
+		if (Utils.getDisplayMetrics(getContext()).densityDpi != mDensityDpi) {
+			updateDimensions();
+			mValueLabelPathInvalid = true;
+			invalidate();
+		}
 	}
 
 	public void setTrackWidth(@FloatRange(from = Float.MIN_VALUE) float trackWidth) {
@@ -259,6 +347,7 @@ public class DiscreteSlider extends View {
 		}
 		mTrackWidth = trackWidth;
 		generateInactiveTrackPath();
+		invalidateTickMarkLayer();
 		invalidate();
 	}
 
@@ -292,6 +381,7 @@ public class DiscreteSlider extends View {
 		}
 		mRadius = radius;
 		generateInactiveTrackPath();
+		invalidateTickMarkLayer();
 		invalidate();
 	}
 
@@ -352,6 +442,28 @@ public class DiscreteSlider extends View {
 					"TickMark step must be a factor of " + (mCount - 1) + ".");
 		}
 		mTickMarkStep = tickMarkStep;
+		mStepTickMarkPattern = null;
+		invalidateTickMarkLayer();
+		invalidate();
+	}
+
+	/**
+	 * Sets the minimum distance between two drawn tick marks. When ticks are denser than this,
+	 * only every n-th tick (and the last one) is drawn.
+	 *
+	 * @param minSpacing The minimum spacing in pixels, {@code 0} draws every tick
+	 */
+	public void setTickMarkMinSpacing(@FloatRange(from = 0) float minSpacing) {
+		if (minSpacing < 0) {
+			throw new IllegalArgumentException("TickMark min spacing must >= 0.");
+		}
+		mTickMarkMinSpacing = minSpacing;
+		invalidateTickMarkLayer();
+		invalidate();
+	}
+
+	public float getTickMarkMinSpacing() {
+		return mTickMarkMinSpacing;
 	}
 
 	public void setValueLabelTextColor(@ColorInt int valueLabelTextColor) {
@@ -370,6 +482,7 @@ public class DiscreteSlider extends View {
 			throw new IllegalArgumentException("Value label text size must be a positive number.");
 		}
 		mValueLabelTextSize = valueLabelTextSize;
+		clearValueLabelCache();
 		invalidate();
 	}
 
@@ -387,6 +500,7 @@ public class DiscreteSlider extends View {
 					"Vertical orientation value label gravity must be right or left.");
 		}
 		mValueLabelGravity = valueLabelGravity;
+		mValueLabelPathInvalid = true;
 		invalidate();
 	}
 
@@ -400,7 +514,7 @@ public class DiscreteSlider extends View {
 			throw new IllegalArgumentException("Mode must be normal or range.");
 		}
 		mMode = mode;
-		checkProgressBound();
+		mEngine.setRange(mode == MODE_RANGE);
 		invalidate();
 	}
 
@@ -409,12 +523,24 @@ public class DiscreteSlider extends View {
 		return mMode;
 	}
 
+	/**
+	 * Sets the number of discrete values, this also leaves the continuous mode.
+	 */
 	public void setCount(@IntRange(from = 2) int count) {
 		if (count < 2) {
 			throw new IllegalArgumentException("Count must larger than 2.");
 		}
+		float[] fractions = mTickPositions.getFractions(count);
+		if (mContinuous) {
+			mContinuous = false;
+			mStepTickMarkPattern = null;
+			clearValueLabelCache();
+			generateInactiveTrackPath();
+		}
 		mCount = count;
-		checkProgressBound();
+		mTickFractions = fractions;
+		mEngine.setCount(count, fractions);
+		invalidateTickMarkLayer();
 		invalidate();
 	}
 
@@ -422,34 +548,257 @@ public class DiscreteSlider extends View {
 		return mCount;
 	}
 
-	public void setTickMarkPatterns(List<Object> patterns) {
-		if (patterns == null) {
-			mTickMarkPatterns = null;
-		} else {
-			for (Object pattern : patterns) {
-				if (!(pattern instanceof Dot) && !(pattern instanceof Dash)) {
-					throw new IllegalArgumentException("Pattern only accepted dot or dash.");
-				}
-			}
-			mTickMarkPatterns = patterns;
+	/**
+	 * Switches to the continuous mode, where the thumbs move in steps of {@code precision}
+	 * from {@code from} to {@code to} and values are reported as floats through
+	 * {@link OnValueChangedListener#onValueChanged(float, boolean)}. The progress methods keep
+	 * working with step indexes. Tick marks are not drawn per step but at
+	 * {@link #setTickMarkCount(int)} evenly spaced positions. Leave the mode with
+	 * {@link #setCount(int)}.
+	 *
+	 * @param precision The value resolution, the range is split into the closest whole
+	 *                  number of steps
+	 */
+	public void setContinuousMode(float from, float to, float precision) {
+		if (!(to > from) || !(precision > 0)) {
+			throw new IllegalArgumentException("To must larger than from and precision than 0.");
+		}
+		if (mTickPositions != TickPositions.LINEAR) {
+			throw new IllegalStateException("Continuous mode only supports linear positions.");
+		}
+		double steps = Math.max(Math.round((to - from) / (double) precision), 1);
+		if (steps > Integer.MAX_VALUE - 1) {
+			throw new IllegalArgumentException("Precision is too fine for this range.");
+		}
+		float minValue = getMinValue(), maxValue = getMaxValue();
+		boolean wasContinuous = mContinuous;
+
+		mContinuous = true;
+		mValueFrom = from;
+		mValueTo = to;
+		// Reported values are rounded to the decimals of the precision.
+		mValueDecimals = Math.max(
+				new BigDecimal(Float.toString(precision)).stripTrailingZeros().scale(), 0);
+		mValueScale = Math.pow(10, mValueDecimals);
+		mCount = (int) steps + 1;
+		// The tick mark step is kept for the discrete mode, continuous tick marks ignore it.
+		mStepTickMarkPattern = null;
+		clearValueLabelCache();
+		mEngine.setCount(mCount, null);
+		if (wasContinuous) {
+			mEngine.setProgress(getProgressOf(minValue),
+					mEngine.getMaxProgress() == -1 ? -1 : getProgressOf(maxValue));
+		}
+		generateInactiveTrackPath();
+		invalidateTickMarkLayer();
+		invalidate();
+	}
+
+	public boolean isContinuousMode() {
+		return mContinuous;
+	}
+
+	/**
+	 * Sets how many evenly spaced tick marks the continuous mode draws, independent of the
+	 * precision. The default {@code 0} draws none.
+	 */
+	public void setTickMarkCount(@IntRange(from = 0) int count) {
+		if (count < 0) {
+			throw new IllegalArgumentException("TickMark count must >= 0.");
+		}
+		mTickMarkCount = count;
+		generateInactiveTrackPath();
+		invalidateTickMarkLayer();
+		invalidate();
+	}
+
+	public int getTickMarkCount() {
+		return mTickMarkCount;
+	}
+
+	/**
+	 * @return The value of a progress step in the continuous mode
+	 */
+	public float getValueOf(int progress) {
+		if (!mContinuous) {
+			throw new IllegalStateException("Values are only available in continuous mode.");
+		}
+		if (progress >= mCount - 1) {
+			return mValueTo;
+		}
+		double value = mValueFrom + (mValueTo - mValueFrom) * ((double) progress / (mCount - 1));
+		return (float) (Math.round(value * mValueScale) / mValueScale);
+	}
+
+	/**
+	 * @return The progress step closest to {@code value} in the continuous mode
+	 */
+	public int getProgressOf(float value) {
+		if (!mContinuous) {
+			throw new IllegalStateException("Values are only available in continuous mode.");
+		}
+		double progress = (value - mValueFrom) / (double) (mValueTo - mValueFrom) * (mCount - 1);
+		return (int) Math.max(Math.min(Math.round(progress), mCount - 1), 0);
+	}
+
+	public void setValue(float value) {
+		setMinProgress(getProgressOf(value));
+	}
+
+	public void setMinValue(float value) {
+		setMinProgress(getProgressOf(value));
+	}
+
+	public void setMaxValue(float value) {
+		setMaxProgress(getProgressOf(value));
+	}
+
+	public float getValue() {
+		return getMinValue();
+	}
+
+	public float getMinValue() {
+		int progress = mEngine.getMinProgress();
+		return mContinuous ? getValueOf(progress) : progress + mProgressOffset;
+	}
+
+	/**
+	 * @return The value of the max thumb, or {@link Float#NaN} in {@link #MODE_NORMAL}, which
+	 * has no max thumb
+	 */
+	public float getMaxValue() {
+		int progress = mEngine.getMaxProgress();
+		if (progress == -1) {
+			return Float.NaN;
+		}
+		return mContinuous ? getValueOf(progress) : progress + mProgressOffset;
+	}
+
+	/**
+	 * Places the ticks along the track, e.g. {@link TickPositions#logarithmic()} or
+	 * {@link TickPositions#of(float...)} for custom breakpoints. The default is
+	 * {@link TickPositions#LINEAR}.
+	 */
+	public void setTickPositions(@NonNull TickPositions positions) {
+		if (mContinuous && positions != TickPositions.LINEAR) {
+			throw new IllegalStateException("Continuous mode only supports linear positions.");
 		}
+		mTickFractions = positions.getFractions(mCount);
+		mTickPositions = positions;
+		mEngine.setCount(mCount, mTickFractions);
+		invalidateTickMarkLayer();
+		invalidate();
+	}
+
+	@NonNull
+	public TickPositions getTickPositions() {
+		return mTickPositions;
+	}
+
+	public void setTickMarkPattern(@Nullable TickMarkPattern pattern) {
+		mTickMarkPattern = pattern;
+		mStepTickMarkPattern = null;
 		generateInactiveTrackPath();
+		invalidateTickMarkLayer();
 		invalidate();
 	}
 
+	@Nullable
+	public TickMarkPattern getTickMarkPattern() {
+		return mTickMarkPattern;
+	}
+
+	/**
+	 * Sets the pattern from a list of {@link Dot} and {@link Dash} instances, see
+	 * {@link #setTickMarkPattern(TickMarkPattern)}. The list is copied, later changes to it
+	 * or its dashes have no effect.
+	 */
+	public void setTickMarkPatterns(@Nullable List<Object> patterns) {
+		setTickMarkPattern(patterns == null ? null : TickMarkPattern.fromList(patterns));
+	}
+
+	/**
+	 * @return A new list of {@link Dot} and {@link Dash} instances for the pattern, see
+	 * {@link #getTickMarkPattern()}
+	 */
 	@Nullable
 	public List<Object> getTickMarkPatterns() {
-		return mTickMarkPatterns;
+		return mTickMarkPattern == null ? null : mTickMarkPattern.toList();
+	}
+
+	/**
+	 * @return The pattern compiled for the tick mark step, so that tick {@code i * step} is
+	 * drawn with element {@code i % size()}
+	 */
+	private TickMarkPattern getStepTickMarkPattern() {
+		if (mStepTickMarkPattern == null) {
+			mStepTickMarkPattern = mTickMarkPattern.forStep(mContinuous ? 1 : mTickMarkStep);
+		}
+		return mStepTickMarkPattern;
+	}
+
+	/**
+	 * @return {@code true} if tick marks are drawn, a pattern is set and the continuous mode
+	 * has at least two visual ticks
+	 */
+	private boolean hasTickMarks() {
+		return mTickMarkPattern != null && getDrawnTickMarkCount() > 1;
+	}
+
+	/**
+	 * @return The number of drawn tick marks, one per {@link #mTickMarkStep} ticks or the
+	 * visual ticks of the continuous mode
+	 */
+	private int getDrawnTickMarkCount() {
+		return mContinuous ? mTickMarkCount : (mCount - 1) / mTickMarkStep + 1;
+	}
+
+	/**
+	 * @param mark The tick mark index, see {@link #getDrawnTickMarkCount()}
+	 */
+	private float getTickMarkPosition(float length, int mark) {
+		if (mContinuous) {
+			return TickSnapper
+					.getPosition(getOrigin(), mRadius, length / (mTickMarkCount - 1), mark);
+		}
+		return mEngine.getPosition(mark * mTickMarkStep, false);
+	}
+
+	private byte getTickMarkKind(int mark) {
+		byte[] kinds = getStepTickMarkPattern().kinds;
+		return kinds[mark % kinds.length];
 	}
 
 	public void setValueLabelFormatter(@NonNull ValueLabelFormatter formatter) {
 		mValueLabelFormatter = formatter;
+		clearValueLabelCache();
+		invalidate();
 	}
 
 	public ValueLabelFormatter getValueLabelFormatter() {
 		return mValueLabelFormatter;
 	}
 
+	/**
+	 * Labels are formatted once per value and cached. Call this when the formatter would now
+	 * return different labels for the same values, e.g. after a locale change.
+	 */
+	public void invalidateValueLabels() {
+		clearValueLabelCache();
+		invalidate();
+	}
+
+	public void setValueLabelTypeface(@Nullable Typeface typeface) {
+		mPaint.setTypeface(typeface);
+		clearValueLabelCache();
+		invalidate();
+	}
+
+	@Nullable
+	public Typeface getValueLabelTypeface() {
+		return mPaint.getTypeface();
+	}
+
 	public void setValueLabelMode(int mode) {
 		mValueLabelMode = mode;
 		invalidate();
@@ -470,6 +819,7 @@ public class DiscreteSlider extends View {
 
 	public void setProgressOffset(int progressOffset) {
 		mProgressOffset = progressOffset;
+		clearValueLabelCache();
 		invalidate();
 	}
 
@@ -478,37 +828,25 @@ public class DiscreteSlider extends View {
 	}
 
 	public void setMinProgress(int progress) {
-		boolean isTouchOnMinProgress = mPendingPosition == mMinProgress;
-
-		int _progress = mMinProgress;
-		mMinProgress = progress;
-		checkProgressBound();
-		if (_progress != mMinProgress && mListener != null) {
-			if (mMaxProgress != -1 && mMode != MODE_NORMAL) {
-				mListener.onValueChanged(mMinProgress + mProgressOffset,
-						mMaxProgress + mProgressOffset, false);
+		boolean isTouchOnMinProgress = mEngine.getPendingPosition() == mEngine.getMinProgress();
+
+		int _progress = mEngine.getMinProgress();
+		mEngine.setMinProgress(progress);
+		if (_progress != mEngine.getMinProgress() && mListener != null) {
+			if (mEngine.isRange()) {
+				dispatchValueChanged(mEngine.getMinProgress(), mEngine.getMaxProgress(), false);
 			} else {
-				mListener.onValueChanged(mMinProgress + mProgressOffset, false);
+				dispatchValueChanged(mEngine.getMinProgress(), false);
 			}
 		}
 
-		if ((mValueLabelMode >> 1 & 0x1) == 1 && (mPendingPosition == -1 || isTouchOnMinProgress)) {
+		int pendingPosition = mEngine.getPendingPosition();
+		if ((mValueLabelMode >> 1 & 0x1) == 1 && (pendingPosition == -1 || isTouchOnMinProgress)) {
 			showMinValueLabel();
-		} else if (mPendingPosition != -1) {
-			if (isTouchOnMinProgress) {
-				mPendingPosition = mMinProgress;
-				if (mPressedPosition != -1) {
-					mPressedPosition = mMinProgress;
-				}
-			} else {
-				mPendingPosition = mMaxProgress;
-				if (mPressedPosition != -1) {
-					mPressedPosition = mMaxProgress;
-				}
-			}
-			generateValueLabelPath();
+		} else if (pendingPosition != -1) {
+			mEngine.followThumb(isTouchOnMinProgress);
 		}
-		checkOffsetBounds(mPressedPosition != -1);
+		mEngine.checkOffsetBounds(mEngine.getPressedPosition() != -1, isClickable());
 
 		invalidate();
 	}
@@ -518,7 +856,7 @@ public class DiscreteSlider extends View {
 	}
 
 	public int getMinProgress() {
-		return mMinProgress;
+		return mEngine.getMinProgress();
 	}
 
 	public void setMaxProgress(int progress) {
@@ -526,72 +864,353 @@ public class DiscreteSlider extends View {
 			throw new IllegalStateException("Set max progress must be range mode.");
 		}
 
-		boolean isTouchOnMinProgress = mPendingPosition == mMinProgress;
+		boolean isTouchOnMinProgress = mEngine.getPendingPosition() == mEngine.getMinProgress();
 
-		int _progress = mMaxProgress;
-		mMaxProgress = progress;
-		checkProgressBound();
-		if (_progress != mMaxProgress && mListener != null) {
-			if (mMaxProgress != -1 && mMode != MODE_NORMAL) {
-				mListener.onValueChanged(mMinProgress + mProgressOffset,
-						mMaxProgress + mProgressOffset, false);
+		int _progress = mEngine.getMaxProgress();
+		mEngine.setMaxProgress(progress);
+		if (_progress != mEngine.getMaxProgress() && mListener != null) {
+			if (mEngine.isRange()) {
+				dispatchValueChanged(mEngine.getMinProgress(), mEngine.getMaxProgress(), false);
 			}
 		}
 
-		if ((mValueLabelMode >> 1 & 0x1) == 1 && (mPendingPosition == -1 || !isTouchOnMinProgress)) {
+		int pendingPosition = mEngine.getPendingPosition();
+		if ((mValueLabelMode >> 1 & 0x1) == 1 && (pendingPosition == -1 || !isTouchOnMinProgress)) {
 			showMaxValueLabel();
-		} else if (mPendingPosition != -1) {
-			if (isTouchOnMinProgress) {
-				mPendingPosition = mMinProgress;
-				if (mPressedPosition != -1) {
-					mPressedPosition = mMinProgress;
-				}
-			} else {
-				mPendingPosition = mMaxProgress;
-				if (mPressedPosition != -1) {
-					mPressedPosition = mMaxProgress;
-				}
-			}
-			generateValueLabelPath();
+		} else if (pendingPosition != -1) {
+			mEngine.followThumb(isTouchOnMinProgress);
 		}
-		checkOffsetBounds(mPressedPosition != -1);
+		mEngine.checkOffsetBounds(mEngine.getPressedPosition() != -1, isClickable());
 
 		invalidate();
 	}
 
 	public int getMaxProgress() {
-		return mMaxProgress;
+		return mEngine.getMaxProgress();
+	}
+
+	public void setOnValueChangedListener(@Nullable OnValueChangedListener listener) {
+		mListener = listener;
+	}
+
+	/**
+	 * When enabled, move events only accumulate the drag offset and the derived work (value
+	 * label, invalidation) runs once per display frame from a {@link Choreographer} callback.
+	 * This saves work on panels which report touches faster than they refresh. Requires API
+	 * 16, ignored below.
+	 */
+	public void setFrameSyncEnabled(boolean enabled) {
+		if (!enabled) {
+			flushDragFrame();
+		}
+		mFrameSyncEnabled = enabled;
+	}
+
+	public boolean isFrameSyncEnabled() {
+		return mFrameSyncEnabled;
+	}
+
+	/**
+	 * When enabled, releasing a dragged thumb with velocity lets it travel on and settle on
+	 * the tick it would come to rest at. The listener is told the landing value on release,
+	 * before the animation ends.
+	 */
+	public void setFlingEnabled(boolean enabled) {
+		mFlingEnabled = enabled;
+	}
+
+	public boolean isFlingEnabled() {
+		return mFlingEnabled;
 	}
 
-	private void checkProgressBound() {
-		if (mMode != MODE_NORMAL) {
-			if (mMaxProgress == -1) {
-				mMaxProgress = mCount - 1;
-			} else if (mMaxProgress > mCount - 1) {
-				mMaxProgress = mCount - 1;
+	/**
+	 * Wraps the drawing, touch handling, path building and listener dispatch of all sliders
+	 * in named {@link android.os.Trace} sections, e.g. {@code DiscreteSlider#onDraw}, so that
+	 * their cost shows up in system traces. Requires API 18, ignored below. Disabled by
+	 * default.
+	 */
+	public static void setTracingEnabled(boolean enabled) {
+		SliderTrace.setEnabled(enabled);
+	}
+
+	public static boolean isTracingEnabled() {
+		return SliderTrace.isEnabled();
+	}
+
+	/**
+	 * Records every touch event this slider receives into {@code recording}, e.g. to write a
+	 * touch stream which causes jank to a file and replay it in a test. Pass {@code null} to
+	 * stop recording.
+	 */
+	public void setTouchRecording(@Nullable TouchRecording recording) {
+		mTouchRecording = recording;
+	}
+
+	/**
+	 * Reports the work this slider does, aggregated per drawn frame, to {@code listener}. The
+	 * counters are only kept while a listener is set, without one the slider pays a null
+	 * check per phase.
+	 */
+	public void setOnMetricsListener(@Nullable OnMetricsListener listener) {
+		mMetricsListener = listener;
+		if (listener == null) {
+			mMetrics = null;
+			if (mMetricsQueued) {
+				mMetricsQueued = false;
+				removeCallbacks(mMetricsRunnable);
 			}
-			if (mMinProgress >= mMaxProgress) {
-				mMinProgress = mMaxProgress - 1;
+		} else if (mMetrics == null) {
+			mMetrics = new SliderMetrics();
+			mMetricsReport = new SliderMetrics();
+			if (mMetricsRunnable == null) {
+				mMetricsRunnable = new Runnable() {
+
+					@Override
+					public void run() {
+						mMetricsQueued = false;
+						if (mMetricsListener != null) {
+							mMetricsListener.onMetrics(mMetricsReport);
+						}
+						mMetricsReport.reset();
+					}
+				};
 			}
-		} else {
-			mMaxProgress = -1;
-			if (mMinProgress > mCount - 1) {
-				mMinProgress = mCount - 1;
+		}
+	}
+
+	/**
+	 * @return The start time of a phase for {@link #endPhase(int, long)}, or {@code 0} when
+	 * no metrics are kept
+	 */
+	private long startPhase() {
+		return mMetrics != null ? System.nanoTime() : 0;
+	}
+
+	private void endPhase(int phase, long start) {
+		if (mMetrics != null && start != 0) {
+			mMetrics.addPhase(phase, System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * Hands the counters of the frame just drawn to the metrics listener, posted so that no
+	 * user code runs inside the draw pass. A report the listener has not seen yet is merged.
+	 */
+	private void queueMetrics() {
+		if (mMetrics == null) {
+			return;
+		}
+		mMetrics.setFrameTime(SystemClock.uptimeMillis());
+		mMetricsReport.add(mMetrics);
+		mMetrics.reset();
+		if (!mMetricsQueued) {
+			mMetricsQueued = true;
+			post(mMetricsRunnable);
+		}
+	}
+
+	private void dispatchValueChanged(int progress, boolean fromUser) {
+		onValueChangedDispatched();
+		boolean traced = SliderTrace.begin(SliderTrace.DISPATCH);
+		long start = startPhase();
+		try {
+			mListener.onValueChanged(progress + mProgressOffset, fromUser);
+			if (mContinuous) {
+				mListener.onValueChanged(getValueOf(progress), fromUser);
 			}
+		} finally {
+			endPhase(SliderMetrics.PHASE_LISTENER, start);
+			SliderTrace.end(traced);
 		}
-		mTmpMinProgress = mMinProgress;
-		mTmpMaxProgress = mMaxProgress;
 	}
 
-	public void setOnValueChangedListener(@Nullable OnValueChangedListener listener) {
-		mListener = listener;
+	private void dispatchValueChanged(int minProgress, int maxProgress, boolean fromUser) {
+		onValueChangedDispatched();
+		boolean traced = SliderTrace.begin(SliderTrace.DISPATCH);
+		long start = startPhase();
+		try {
+			mListener.onValueChanged(minProgress + mProgressOffset, maxProgress + mProgressOffset,
+					fromUser);
+			if (mContinuous) {
+				mListener.onValueChanged(getValueOf(minProgress), getValueOf(maxProgress),
+						fromUser);
+			}
+		} finally {
+			endPhase(SliderMetrics.PHASE_LISTENER, start);
+			SliderTrace.end(traced);
+		}
+	}
+
+	/**
+	 * A dispatched change supersedes the queued one and starts a new throttle interval.
+	 */
+	private void onValueChangedDispatched() {
+		cancelQueuedValueChanged();
+		mLastDispatchTime = SystemClock.uptimeMillis();
+	}
+
+	/**
+	 * Queues an intermediate change for the dispatch policy, replacing the queued one.
+	 *
+	 * @param maxProgress The max progress, or {@code -1} in normal mode
+	 */
+	private void queueValueChanged(int minProgress, int maxProgress) {
+		if (mListener == null || mDispatchPolicy.kind == DispatchPolicy.KIND_ON_RELEASE) {
+			return;
+		}
+		mQueuedMinProgress = minProgress;
+		mQueuedMaxProgress = maxProgress;
+		if (mDispatchRunnable == null) {
+			mDispatchRunnable = new Runnable() {
+
+				@Override
+				public void run() {
+					mValueChangedQueued = false;
+					if (mListener == null) {
+						return;
+					}
+					if (mQueuedMaxProgress != -1) {
+						dispatchValueChanged(mQueuedMinProgress, mQueuedMaxProgress, true);
+					} else {
+						dispatchValueChanged(mQueuedMinProgress, true);
+					}
+				}
+			};
+		}
+		if (mDispatchPolicy.kind == DispatchPolicy.KIND_DEBOUNCE) {
+			removeCallbacks(mDispatchRunnable);
+			mValueChangedQueued = true;
+			postDelayed(mDispatchRunnable, mDispatchPolicy.interval);
+			return;
+		}
+		if (mValueChangedQueued) {
+			// The scheduled dispatch picks up the new values.
+			return;
+		}
+		mValueChangedQueued = true;
+		if (mDispatchPolicy.kind == DispatchPolicy.KIND_THROTTLE) {
+			long delay = mLastDispatchTime + mDispatchPolicy.interval - SystemClock.uptimeMillis();
+			postDelayed(mDispatchRunnable, Math.max(delay, 0));
+		} else if (mDispatchPolicy.kind == DispatchPolicy.KIND_LATEST_PER_FRAME &&
+				Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+			postOnAnimation(mDispatchRunnable);
+		} else {
+			post(mDispatchRunnable);
+		}
+	}
+
+	private void cancelQueuedValueChanged() {
+		if (mValueChangedQueued) {
+			mValueChangedQueued = false;
+			removeCallbacks(mDispatchRunnable);
+		}
+	}
+
+	/**
+	 * Sets the minimum time between two tick haptics. However fast a thumb crosses ticks, the
+	 * haptics are also limited to one per frame. The default {@code 0} only applies that limit.
+	 *
+	 * @param interval The minimum interval in milliseconds
+	 */
+	public void setHapticMinInterval(@IntRange(from = 0) int interval) {
+		if (interval < 0) {
+			throw new IllegalArgumentException("Interval must >= 0.");
+		}
+		mHapticMinInterval = interval;
+	}
+
+	public int getHapticMinInterval() {
+		return mHapticMinInterval;
+	}
+
+	/**
+	 * When enabled, the tick haptic of a frame in which a thumb crossed several ticks uses
+	 * the lighter {@link HapticFeedbackConstants#CLOCK_TICK} on API 21 and above, so fast
+	 * scrubbing feels lighter than stepping tick by tick.
+	 */
+	public void setHapticVelocityAware(boolean velocityAware) {
+		mHapticVelocityAware = velocityAware;
+	}
+
+	public boolean isHapticVelocityAware() {
+		return mHapticVelocityAware;
+	}
+
+	/**
+	 * Counts a crossed tick and schedules its haptic for the next frame, merging it with the
+	 * other ticks crossed until then.
+	 */
+	private void queueTickHaptic() {
+		if (!isHapticFeedbackEnabled() || mContinuous) {
+			return;
+		}
+		mHapticTicks++;
+		if (mHapticQueued) {
+			return;
+		}
+		mHapticQueued = true;
+		if (mHapticRunnable == null) {
+			mHapticRunnable = new Runnable() {
+
+				@Override
+				public void run() {
+					mHapticQueued = false;
+					performTickHaptic();
+				}
+			};
+		}
+		if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+			postOnAnimation(mHapticRunnable);
+		} else {
+			post(mHapticRunnable);
+		}
+	}
+
+	private void performTickHaptic() {
+		int ticks = mHapticTicks;
+		mHapticTicks = 0;
+		long now = SystemClock.uptimeMillis();
+		if (now - mLastHapticTime < mHapticMinInterval) {
+			return;
+		}
+		mLastHapticTime = now;
+		if (mHapticVelocityAware && ticks > 1 &&
+				Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+			performHapticFeedback(HapticFeedbackConstants.CLOCK_TICK);
+		} else {
+			performHapticFeedback(HapticFeedbackConstants.VIRTUAL_KEY);
+		}
 	}
 
+	/**
+	 * The same as {@link #setDispatchPolicy(DispatchPolicy)} with
+	 * {@link DispatchPolicy#IMMEDIATE} or {@link DispatchPolicy#ON_RELEASE}.
+	 */
 	public void setValueChangedImmediately(boolean immediately) {
-		mValueChangedImmediately = immediately;
+		setDispatchPolicy(immediately ? DispatchPolicy.IMMEDIATE : DispatchPolicy.ON_RELEASE);
+	}
+
+	/**
+	 * Sets how often the listener is told about changes while a thumb moves, e.g.
+	 * {@link DispatchPolicy#throttle(long)} for a listener which starts a query. The value a
+	 * thumb is released on is always dispatched. The default is
+	 * {@link DispatchPolicy#ON_RELEASE}.
+	 */
+	public void setDispatchPolicy(@NonNull DispatchPolicy policy) {
+		if (!policy.equals(mDispatchPolicy)) {
+			cancelQueuedValueChanged();
+		}
+		mDispatchPolicy = policy;
+	}
+
+	@NonNull
+	public DispatchPolicy getDispatchPolicy() {
+		return mDispatchPolicy;
 	}
 
 	private void generateInactiveTrackPath() {
+		boolean traced = SliderTrace.begin(SliderTrace.TRACK_PATH);
+		long start = startPhase();
 		float radius = mTrackWidth / 2f;
 		float left, top, right, bottom;
 		mInactiveTrackPath.reset();
@@ -602,15 +1221,16 @@ public class DiscreteSlider extends View {
 					getPaddingTop();
 			right = left + mLength;
 			bottom = top + mTrackWidth;
-			if (mTickMarkPatterns != null && mTickMarkPatterns.size() > 0) {
-				if (mTickMarkPatterns.get(0) instanceof Dot) {
+			if (hasTickMarks()) {
+				int lastMark = getDrawnTickMarkCount() - 1;
+				if (getTickMarkKind(0) == TickMarkPattern.DOT) {
 					mRectF.set(left, top, left + mTrackWidth, bottom);
 					mInactiveTrackPath.arcTo(mRectF, 90, 180, true);
 				} else {
 					mInactiveTrackPath.moveTo(left, bottom);
 					mInactiveTrackPath.lineTo(left, top);
 				}
-				if (mTickMarkPatterns.get((mCount - 1) % mTickMarkPatterns.size()) instanceof Dot) {
+				if (getTickMarkKind(lastMark) == TickMarkPattern.DOT) {
 					mInactiveTrackPath.lineTo(right - radius, top);
 					mRectF.set(right - mTrackWidth, top, right, bottom);
 					mInactiveTrackPath.arcTo(mRectF, -90, 180, true);
@@ -618,7 +1238,7 @@ public class DiscreteSlider extends View {
 					mInactiveTrackPath.lineTo(right, top);
 					mInactiveTrackPath.lineTo(right, bottom);
 				}
-				if (mTickMarkPatterns.get(0) instanceof Dot) {
+				if (getTickMarkKind(0) == TickMarkPattern.DOT) {
 					mInactiveTrackPath.lineTo(left + radius, bottom);
 				} else {
 					mInactiveTrackPath.lineTo(left, bottom);
@@ -636,15 +1256,16 @@ public class DiscreteSlider extends View {
 			top = getPaddingTop() + mRadius - radius;
 			right = left + mTrackWidth;
 			bottom = top + mLength;
-			if (mTickMarkPatterns != null && mTickMarkPatterns.size() > 0) {
-				if (mTickMarkPatterns.get(0) instanceof Dot) {
+			if (hasTickMarks()) {
+				int lastMark = getDrawnTickMarkCount() - 1;
+				if (getTickMarkKind(0) == TickMarkPattern.DOT) {
 					mRectF.set(left, top, right, top + mTrackWidth);
 					mInactiveTrackPath.arcTo(mRectF, 180, 180, true);
 				} else {
 					mInactiveTrackPath.moveTo(left, top);
 					mInactiveTrackPath.lineTo(right, top);
 				}
-				if (mTickMarkPatterns.get((mCount - 1) % mTickMarkPatterns.size()) instanceof Dot) {
+				if (getTickMarkKind(lastMark) == TickMarkPattern.DOT) {
 					mInactiveTrackPath.lineTo(right, bottom - radius);
 					mRectF.set(left, bottom - mTrackWidth, right, bottom);
 					mInactiveTrackPath.arcTo(mRectF, 0, 180, true);
@@ -652,7 +1273,7 @@ public class DiscreteSlider extends View {
 					mInactiveTrackPath.lineTo(right, bottom);
 					mInactiveTrackPath.lineTo(left, bottom);
 				}
-				if (mTickMarkPatterns.get(0) instanceof Dot) {
+				if (getTickMarkKind(0) == TickMarkPattern.DOT) {
 					mInactiveTrackPath.lineTo(left, top + radius);
 				} else {
 					mInactiveTrackPath.lineTo(left, top);
@@ -663,6 +1284,12 @@ public class DiscreteSlider extends View {
 				mInactiveTrackPath.addRoundRect(mRectF, radius, radius, Path.Direction.CW);
 			}
 		}
+		mEngine.setGeometry(getOrigin(), mRadius, mLength - mTrackWidth);
+		if (mMetrics != null) {
+			mMetrics.addPathRebuild();
+		}
+		endPhase(SliderMetrics.PHASE_TRACK_PATH, start);
+		SliderTrace.end(traced);
 	}
 
 	@Override
@@ -674,7 +1301,17 @@ public class DiscreteSlider extends View {
 	@Override
 	public boolean onTouchEvent(MotionEvent event) {
 		performClick();
-		return isEnabled() && handleTouchEvent(event);
+		if (mTouchRecording != null) {
+			mTouchRecording.add(event);
+		}
+		boolean traced = SliderTrace.begin(SliderTrace.TOUCH);
+		long start = startPhase();
+		try {
+			return isEnabled() && handleTouchEvent(event);
+		} finally {
+			endPhase(SliderMetrics.PHASE_TOUCH, start);
+			SliderTrace.end(traced);
+		}
 	}
 
 	private void requestDisallowInterceptTouchEvent(ViewParent parent, boolean isDragging) {
@@ -685,356 +1322,316 @@ public class DiscreteSlider extends View {
 	}
 
 	private boolean handleTouchEvent(MotionEvent event) {
+		if (mMoveDetector == null) {
+			mMoveDetector = new MoveGestureDetector(getContext(), new MoveListener());
+		}
 		if (mCount < 2) {
 			mMoveDetector.onTouchEvent(event);
 			return true;
 		}
-		float length = mLength - mTrackWidth;
+		if (event.getAction() != MotionEvent.ACTION_MOVE) {
+			flushDragFrame();
+		}
+		float p = mOrientation == HORIZONTAL ? event.getX() : event.getY();
 		if (event.getAction() == MotionEvent.ACTION_DOWN) {
-			int pendingPosition = mPendingPosition;
-
-			mOffset = 0;
-			mPendingPosition = -1;
-			mSkipMove = false;
-
-			float p = mOrientation == HORIZONTAL ? event.getX() : event.getY();
-			if (mMaxProgress == -1 && mMode == MODE_NORMAL) {
-				float c = getPosition(length, mMinProgress, false);
-				if (c - mRadius * 3.5 <= p && p <= c + mRadius * 3.5) {
-					mPendingPosition = mMinProgress;
-				}
-			} else {
-				float c1 = getPosition(length, mMinProgress, false);
-				float c2 = getPosition(length, mMaxProgress, false);
-				if (c1 - mRadius * 3.5 <= p && p <= c1 + mRadius * 3.5) {
-					mPendingPosition = mMinProgress;
-				} else if (c2 - mRadius * 3.5 <= p && p <= c2 + mRadius * 3.5) {
-					mPendingPosition = mMaxProgress;
-				}
-			}
-			if (mPendingPosition == -1) {
-				mPendingPosition = (int) getClosestPosition(p, length)[0];
-			}
+			int pendingPosition = mEngine.getPendingPosition();
+			mEngine.down(p);
+			boolean isOnThumb = mEngine.isPendingOnThumb();
 
-			if (pendingPosition != mPendingPosition) {
+			if (pendingPosition != mEngine.getPendingPosition()) {
 				if (mValueLabelAnimator != null) {
 					mValueLabelAnimator.cancel();
-					mValueLabelAnimator = null;
 				}
 				mValueLabelAnimValue = 0;
 				mValueLabelIsShowing = false;
-				mShowValueLabelHandler.removeCallbacksAndMessages(null);
+				removeCallbacks(mHideValueLabelRunnable);
 			}
 
-			if (isClickable()) {
-				if (mPendingPosition != mMinProgress &&
-						!(mPendingPosition == mMaxProgress && mMode != MODE_NORMAL)) {
-					animValueLabel();
-				}
-				if (mMaxProgress != -1 && mMode == MODE_RANGE) {
-					if (Math.abs(mMinProgress - mPendingPosition) >
-							Math.abs(mMaxProgress - mPendingPosition)) {
-						mMaxProgress = mPendingPosition;
-					} else {
-						mMinProgress = mPendingPosition;
-					}
-				} else {
-					mMinProgress = mPendingPosition;
-				}
+			if (isClickable() && !isOnThumb) {
+				animValueLabel();
 			}
+			mEngine.press(isClickable());
 
-			checkOffsetBounds(true);
-
-			if (mPendingPosition == mMinProgress ||
-					mPendingPosition == mMaxProgress && mMaxProgress != -1 && mMode == MODE_RANGE) {
+			if (mEngine.isPendingOnThumb()) {
 				requestDisallowInterceptTouchEvent(getParent(), true);
 			}
 		} else if (event.getAction() == MotionEvent.ACTION_UP) {
-			if (mPendingPosition == -1) {
-				mOffset = 0;
+			if (mEngine.getPendingPosition() == -1) {
+				mEngine.up(p, 0);
 				mMoveDetector.onTouchEvent(event);
 				return true;
 			}
-			if (mPendingPosition != mMinProgress && mPendingPosition != mMaxProgress) {
-				float p = mOrientation == HORIZONTAL ? event.getX() : event.getY();
-				final int position = (int) getClosestPosition(p, length)[0];
-				if (position == mPendingPosition && !mSkipMove) {
-					if (mMaxProgress == -1 && mMode == MODE_NORMAL) {
-						mPendingPosition = mMinProgress;
-					} else {
-						if (Math.abs(mMinProgress - position) <=
-								Math.abs(mMaxProgress - position)) {
-							mPendingPosition = mMinProgress;
-						} else {
-							mPendingPosition = mMaxProgress;
-						}
-					}
-
-					if (mListener != null) {
-						if (mMaxProgress != -1 && mMode != MODE_NORMAL) {
-							if (mPendingPosition == mMinProgress) {
-								mListener.onValueChanged(position + mProgressOffset,
-										mMaxProgress + mProgressOffset, true);
-							} else {
-								mListener.onValueChanged(mMinProgress + mProgressOffset,
-										position + mProgressOffset, true);
-							}
-						} else {
-							mListener.onValueChanged(position + mProgressOffset, true);
-						}
-					}
+			float velocity = 0;
+			if (mFlingEnabled && mEngine.isPendingOnThumb()) {
+				velocity = getReleaseVelocity(event.getEventTime());
+				if (Math.abs(velocity) < mMinFlingVelocity) {
+					velocity = 0;
+				}
+			}
+			int release = mEngine.up(p, velocity);
+			if (release != SliderEngine.RELEASE_NONE) {
+				int position = mEngine.getReleasePosition();
+				float offset = mEngine.getReleaseOffset();
+				dispatchReleased(position);
+				mSettleDispatched = true;
 
-					setEnabled(false);
+				setEnabled(false);
 
-					mOffset = 0;
-					float dis = length / (mCount - 1) * (position - mPendingPosition);
-					ValueAnimator animator = ValueAnimator.ofFloat(mOffset, mOffset + dis);
-					animator.setInterpolator(new DecelerateInterpolator(2.5f));
-					animator.setDuration(250);
-					animator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
+				if (release == SliderEngine.RELEASE_TAP) {
+					animOffset(offset, position, false);
+				} else {
+					if (velocity == 0 || !flingOffset(offset, position, velocity)) {
+						animOffset(offset, position, true);
+					}
 
-						@Override
-						public void onAnimationUpdate(ValueAnimator animation) {
-							mOffset = (float) animation.getAnimatedValue();
-							invalidate();
-						}
-					});
-					animator.addListener(new AnimatorListenerAdapter() {
-
-						@Override
-						public void onAnimationEnd(Animator animation) {
-							super.onAnimationEnd(animation);
-							mOffset = 0;
-							if (mPendingPosition == mMinProgress) {
-								mMinProgress = position;
-							} else if (mPendingPosition == mMaxProgress && mMode != MODE_NORMAL) {
-								mMaxProgress = position;
-							}
-							mPendingPosition = -1;
-							setEnabled(true);
-
-							invalidate();
-						}
-					});
-					animator.start();
+					hideValueLabel();
 				}
-			} else {
-				float p = getPosition(length, mPendingPosition, true);
-				float[] closestPosition = getClosestPosition(p, length);
-				float dis = closestPosition[1];
-				int position = (int) closestPosition[0];
-
-				if (mListener != null) {
-					if (mMaxProgress != -1 && mMode != MODE_NORMAL) {
-						if (mPendingPosition == mMinProgress) {
-							mListener.onValueChanged(position + mProgressOffset,
-									mMaxProgress + mProgressOffset, true);
-						} else {
-							mListener.onValueChanged(mMinProgress + mProgressOffset,
-									position + mProgressOffset, true);
-						}
-					} else {
-						mListener.onValueChanged(position + mProgressOffset, true);
-					}
-				}
-
-				setEnabled(false);
-
-				final int _position = position;
-				ValueAnimator animator = ValueAnimator.ofFloat(mOffset, mOffset + dis);
-				animator.setInterpolator(new DecelerateInterpolator(2.5f));
-				animator.setDuration(250);
-				animator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
-
-					@Override
-					public void onAnimationUpdate(ValueAnimator animation) {
-						mOffset = (float) animation.getAnimatedValue();
-						invalidate();
-					}
-				});
-				animator.addListener(new AnimatorListenerAdapter() {
-
-					@Override
-					public void onAnimationEnd(Animator animation) {
-						super.onAnimationEnd(animation);
-						mOffset = 0;
-						if (mPendingPosition == mMinProgress) {
-							mMinProgress = _position;
-						} else if (mPendingPosition == mMaxProgress && mMode != MODE_NORMAL) {
-							mMaxProgress = _position;
-						}
-						if (mValueLabelAnimator == null) {
-							mPendingPosition = -1;
-							setEnabled(true);
-						} else {
-							mPendingPosition = _position;
-						}
-						invalidate();
-					}
-				});
-				animator.start();
-
-				hideValueLabel();
 			}
-			mPressedPosition = -1;
 			requestDisallowInterceptTouchEvent(getParent(), false);
 		} else if (event.getAction() == MotionEvent.ACTION_CANCEL) {
-			if (mPendingPosition == mMinProgress || mPendingPosition == mMaxProgress) {
+			if (mEngine.cancel()) {
 				setEnabled(false);
 
-				ValueAnimator animator = ValueAnimator.ofFloat(mOffset, 0);
-				animator.setInterpolator(new DecelerateInterpolator(2.5f));
-				animator.setDuration(250);
-				animator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
-
-					@Override
-					public void onAnimationUpdate(ValueAnimator animation) {
-						mOffset = (float) animation.getAnimatedValue();
-						invalidate();
-					}
-				});
-				animator.addListener(new AnimatorListenerAdapter() {
-
-					@Override
-					public void onAnimationEnd(Animator animation) {
-						super.onAnimationEnd(animation);
-						mOffset = 0;
-						mPendingPosition = -1;
-						setEnabled(true);
-						invalidate();
-					}
-				});
-				animator.start();
-			} else {
-				mOffset = 0;
+				animOffset(0, -1, false);
 			}
 
-			mPendingPosition = -1;
-			mPressedPosition = -1;
 			requestDisallowInterceptTouchEvent(getParent(), false);
 		}
 		mMoveDetector.onTouchEvent(event);
-		invalidate();
+		if (event.getAction() == MotionEvent.ACTION_MOVE) {
+			if (!isFrameSynced()) {
+				invalidateDynamicBounds();
+			}
+		} else {
+			updateState();
+			invalidate();
+		}
 		return true;
 	}
 
-	private void checkOffsetBounds(boolean isTouching) {
-		float length = mLength - mTrackWidth;
-		float p = getPosition(length, mPendingPosition, false);
-		if (mPendingPosition == mMinProgress) {
-			mMinOffset = getPosition(length, 0, false) - p;
-			if (mMaxProgress != -1 && mMode == MODE_RANGE) {
-				mMaxOffset = getPosition(length, mMaxProgress - 1, false) - p;
+	/**
+	 * Tells the listener the value a released or tapped thumb settles on.
+	 */
+	private void dispatchReleased(int position) {
+		if (mListener == null) {
+			return;
+		}
+		if (mEngine.isRange()) {
+			if (mEngine.getPendingPosition() == mEngine.getMinProgress()) {
+				dispatchValueChanged(position, mEngine.getMaxProgress(), true);
 			} else {
-				mMaxOffset = getPosition(length, mCount - 1, false) - p;
-			}
-			if (isTouching) {
-				mPressedPosition = mPendingPosition;
+				dispatchValueChanged(mEngine.getMinProgress(), position, true);
 			}
-		} else if (mPendingPosition == mMaxProgress && mMode != MODE_NORMAL) {
-			mMinOffset = getPosition(length, mMinProgress + 1, false) - p;
-			mMaxOffset = getPosition(length, mCount - 1, false) - p;
-			if (isTouching) {
-				mPressedPosition = mPendingPosition;
-			}
-		} else if (!isClickable()) {
-			mPressedPosition = mPendingPosition = -1;
+		} else {
+			dispatchValueChanged(position, true);
 		}
 	}
 
-	private void animValueLabel() {
-		mValueLabelIsShowing = true;
-		mShowValueLabelHandler.removeCallbacksAndMessages(null);
+	/**
+	 * Animates the engine offset to {@code offset} with the shared offset animator.
+	 *
+	 * @param offset            The target offset
+	 * @param position          The progress applied to the pending thumb when the animation
+	 *                          ends, or {@code -1} to leave the progress unchanged
+	 * @param waitForValueLabel Keep the pending position while the value label is animating
+	 */
+	private void animOffset(float offset, int position, boolean waitForValueLabel) {
+		ensureOffsetAnimator();
+		mOffsetAnimator.setInterpolator(OFFSET_INTERPOLATOR);
+		mOffsetAnimator.setDuration(250);
+		mSettlePosition = position;
+		mSettleWaitsForValueLabel = waitForValueLabel;
+		mOffsetAnimator.setFloatValues(mEngine.getOffset(), offset);
+		mOffsetAnimator.start();
+		if (mMetrics != null) {
+			mMetrics.addAnimatorStart();
+		}
+	}
 
-		float value = mValueLabelAnimValue;
-		if (mValueLabelAnimator != null) {
-			value = mValueLabelAnimator.getAnimatedFraction();
-			mValueLabelAnimator.cancel();
+	/**
+	 * Decays the engine offset to {@code offset}, starting at the release velocity so the
+	 * thumb does not jump when the finger lifts.
+	 *
+	 * @return {@code false} if the target lies against the release direction, in which case
+	 * nothing was started
+	 */
+	private boolean flingOffset(float offset, int position, float velocity) {
+		float distance = offset - mEngine.getOffset();
+		if (distance == 0 || distance > 0 != velocity > 0) {
+			return false;
 		}
+		long duration = Math.round(FLING_INTERPOLATOR.getRate() * distance / velocity * 1000);
+		duration = Math.max(FLING_MIN_DURATION, Math.min(FLING_MAX_DURATION, duration));
+
+		ensureOffsetAnimator();
+		mOffsetAnimator.setInterpolator(FLING_INTERPOLATOR);
+		mOffsetAnimator.setDuration(duration);
+		mSettlePosition = position;
+		mSettleWaitsForValueLabel = true;
+		mOffsetAnimator.setFloatValues(mEngine.getOffset(), offset);
+		mOffsetAnimator.start();
+		if (mMetrics != null) {
+			mMetrics.addAnimatorStart();
+		}
+		return true;
+	}
 
-		if (value == 1) {
-			mValueLabelAnimator = null;
-			generateValueLabelPath();
-			return;
+	/**
+	 * @param time The release time, a finger which rested before lifting has no velocity
+	 * @return The release velocity along the track in pixels per second
+	 */
+	private float getReleaseVelocity(long time) {
+		Trajectory trajectory = mMoveDetector.getTrajectory();
+		if (trajectory.size() < 2 ||
+				time - trajectory.getTime(trajectory.size() - 1) > FLING_MAX_REST) {
+			return 0;
 		}
+		return mOrientation == HORIZONTAL ? mMoveDetector.getVelocityX() :
+				mMoveDetector.getVelocityY();
+	}
 
-		mValueLabelAnimator = ValueAnimator.ofFloat(value, 1);
-		mValueLabelAnimator.setDuration(Math.round((250 * (1 - value))));
-		mValueLabelAnimator.setInterpolator(new AccelerateInterpolator());
-		mValueLabelAnimator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
+	private void ensureOffsetAnimator() {
+		if (mOffsetAnimator == null) {
+			mOffsetAnimator = new ValueAnimator();
+			mOffsetAnimator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
 
-			@Override
-			public void onAnimationUpdate(ValueAnimator animation) {
-				mValueLabelAnimValue = (float) animation.getAnimatedValue();
-				generateValueLabelPath();
-				invalidate();
-			}
-		});
-		mValueLabelAnimator.start();
+				@Override
+				public void onAnimationUpdate(ValueAnimator animation) {
+					mEngine.setOffset((float) animation.getAnimatedValue());
+					updateState();
+					invalidateDynamicBounds();
+				}
+			});
+			mOffsetAnimator.addListener(new AnimatorListenerAdapter() {
+
+				@Override
+				public void onAnimationEnd(Animator animation) {
+					super.onAnimationEnd(animation);
+					mEngine.settle(mSettlePosition);
+					if (mSettleWaitsForValueLabel && isValueLabelActive()) {
+						mEngine.setPendingPosition(mSettlePosition);
+					} else {
+						mEngine.setPendingPosition(-1);
+						setEnabled(true);
+					}
+					updateState();
+					mSettleDispatched = false;
+					invalidate();
+				}
+			});
+		}
+	}
+
+	private void animValueLabel() {
+		mValueLabelIsShowing = true;
+		removeCallbacks(mHideValueLabelRunnable);
+		animValueLabel(1, VALUE_LABEL_SHOW_INTERPOLATOR);
 	}
 
 	private void hideValueLabel() {
 		mValueLabelIsShowing = false;
-		mShowValueLabelHandler.removeCallbacksAndMessages(null);
+		removeCallbacks(mHideValueLabelRunnable);
+		animValueLabel(0, VALUE_LABEL_HIDE_INTERPOLATOR);
+	}
 
+	/**
+	 * Retargets the value label animation from the value it shows right now, reusing one
+	 * animator for every show and hide so that repeated taps do not allocate.
+	 */
+	private void animValueLabel(float target, TimeInterpolator interpolator) {
 		float value = mValueLabelAnimValue;
-		if (mValueLabelAnimator != null) {
-			value = mValueLabelAnimator.getAnimatedFraction();
-			mValueLabelAnimator.cancel();
+		if (value == target) {
+			if (mValueLabelAnimator != null) {
+				mValueLabelAnimator.cancel();
+			}
+			return;
 		}
 
-		if (value > 0) {
-			mValueLabelAnimator = ValueAnimator.ofFloat(value, 0);
-			mValueLabelAnimator.setDuration(Math.round(250 * value));
-			mValueLabelAnimator.setInterpolator(new DecelerateInterpolator());
+		ensureValueLabelAnimator();
+		mValueLabelAnimator.setFloatValues(value, target);
+		mValueLabelAnimator.setDuration(Math.round(250 * Math.abs(target - value)));
+		mValueLabelAnimator.setInterpolator(interpolator);
+		mValueLabelAnimator.start();
+		if (mMetrics != null) {
+			mMetrics.addAnimatorStart();
+		}
+	}
+
+	private void ensureValueLabelAnimator() {
+		if (mValueLabelAnimator == null) {
+			mValueLabelAnimator = new ValueAnimator();
 			mValueLabelAnimator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
 
 				@Override
 				public void onAnimationUpdate(ValueAnimator animation) {
 					mValueLabelAnimValue = (float) animation.getAnimatedValue();
-					generateValueLabelPath();
-					invalidate();
+					invalidateDynamicBounds();
 				}
 			});
 			mValueLabelAnimator.addListener(new AnimatorListenerAdapter() {
 
+				private boolean mCanceled;
+
+				@Override
+				public void onAnimationStart(Animator animation) {
+					super.onAnimationStart(animation);
+					mCanceled = false;
+				}
+
+				@Override
+				public void onAnimationCancel(Animator animation) {
+					super.onAnimationCancel(animation);
+					mCanceled = true;
+				}
+
 				@Override
 				public void onAnimationEnd(Animator animation) {
 					super.onAnimationEnd(animation);
-					mValueLabelAnimator = null;
-					if (mOffset == 0) {
-						mPendingPosition = -1;
+					// Only a finished hide releases the thumb, not a retargeted or canceled one.
+					if (mCanceled || mValueLabelIsShowing) {
+						return;
+					}
+					if (mEngine.getOffset() == 0) {
+						mEngine.setPendingPosition(-1);
 						setEnabled(true);
 					}
 
 					invalidate();
 				}
 			});
-			mValueLabelAnimator.start();
-		} else {
-			mValueLabelAnimator = null;
 		}
 	}
 
+	/**
+	 * @return {@code true} while the value label is shown or still animating out
+	 */
+	private boolean isValueLabelActive() {
+		return mValueLabelIsShowing ||
+				mValueLabelAnimator != null && mValueLabelAnimator.isRunning();
+	}
+
 	private void showMinValueLabel() {
-		mPendingPosition = mMinProgress;
+		mEngine.setPendingPosition(mEngine.getMinProgress());
 		showValueLabel();
 	}
 
 	private void showMaxValueLabel() {
-		mPendingPosition = mMaxProgress;
+		mEngine.setPendingPosition(mEngine.getMaxProgress());
 		showValueLabel();
 	}
 
 	private void showValueLabel() {
 		animValueLabel();
-		mShowValueLabelHandler.postDelayed(new Runnable() {
+		if (mHideValueLabelRunnable == null) {
+			mHideValueLabelRunnable = new Runnable() {
 
-			@Override
-			public void run() {
-				hideValueLabel();
-			}
-		}, mValueLabelDuration - 250);
+				@Override
+				public void run() {
+					hideValueLabel();
+				}
+			};
+		}
+		postDelayed(mHideValueLabelRunnable, mValueLabelDuration - 250);
 	}
 
 	@Override
@@ -1062,9 +1659,32 @@ public class DiscreteSlider extends View {
 	@Override
 	protected void onDraw(Canvas canvas) {
 		super.onDraw(canvas);
+		boolean traced = SliderTrace.begin(SliderTrace.DRAW);
+		long start = startPhase();
+		try {
+			drawSlider(canvas);
+			endPhase(SliderMetrics.PHASE_DRAW, start);
+			queueMetrics();
+		} finally {
+			// Subclasses draw the thumbs, keep the section balanced if they throw.
+			SliderTrace.end(traced);
+		}
+	}
+
+	private void drawSlider(Canvas canvas) {
+		if (canvas.getClipBounds(CLIP_BOUNDS)) {
+			mLastDrawnArea = (long) CLIP_BOUNDS.width() * CLIP_BOUNDS.height();
+		} else {
+			mLastDrawnArea = 0;
+		}
+		getDynamicBounds(mDrawnDynamicBounds);
 		boolean isValueLabelVisible =
 				(mValueLabelMode & 0x1) == 1 || (mValueLabelMode >> 1 & 0x1) == 1;
 		float length = mLength - mTrackWidth;
+		int minProgress = mEngine.getMinProgress();
+		int maxProgress = mEngine.getMaxProgress();
+		int pendingPosition = mEngine.getPendingPosition();
+		int pressedPosition = mEngine.getPressedPosition();
 		mPaint.setColor(mInactiveTrackColor);
 		canvas.drawPath(mInactiveTrackPath, mPaint);
 
@@ -1074,17 +1694,16 @@ public class DiscreteSlider extends View {
 			float top = ((getHeight() - getPaddingTop() - getPaddingBottom()) - mTrackWidth) / 2f +
 					getPaddingTop();
 			float bottom = top + mTrackWidth;
-			if (mMode != MODE_NORMAL && mMaxProgress != -1) {
-				float left = min = getPosition(length, mMinProgress, true) - mTrackWidth / 2f;
-				float right = max = getPosition(length, mMaxProgress, true) + mTrackWidth / 2f;
+			if (mEngine.isRange()) {
+				float left = min = mEngine.getPosition(minProgress, true) - mTrackWidth / 2f;
+				float right = max = mEngine.getPosition(maxProgress, true) + mTrackWidth / 2f;
 				mRectF.set(left, top, right, bottom);
 				canvas.drawRoundRect(mRectF, mTrackWidth / 2f, mTrackWidth / 2f, mPaint);
 			} else {
-				float left = min = getPosition(length, 0, false) - mTrackWidth / 2f;
-				float right = max = getPosition(length, mMinProgress, true) + mTrackWidth / 2f;
+				float left = min = mEngine.getPosition(0, false) - mTrackWidth / 2f;
+				float right = max = mEngine.getPosition(minProgress, true) + mTrackWidth / 2f;
 				mRectF.set(left, top, right, bottom);
-				if (mTickMarkPatterns == null || mTickMarkPatterns.size() == 0 ||
-						mTickMarkPatterns.get(0) instanceof Dot) {
+				if (!hasTickMarks() || getTickMarkKind(0) == TickMarkPattern.DOT) {
 					canvas.drawRoundRect(mRectF, mTrackWidth / 2f, mTrackWidth / 2f, mPaint);
 				} else {
 					canvas.drawRect(mRectF, mPaint);
@@ -1094,17 +1713,16 @@ public class DiscreteSlider extends View {
 			float left = ((getWidth() - getPaddingLeft() - getPaddingRight()) - mTrackWidth) / 2f +
 					getPaddingLeft();
 			float right = left + mTrackWidth;
-			if (mMode != MODE_NORMAL && mMaxProgress != -1) {
-				float top = min = getPosition(length, mMinProgress, true) - mTrackWidth / 2f;
-				float bottom = max = getPosition(length, mMaxProgress, true) + mTrackWidth / 2f;
+			if (mEngine.isRange()) {
+				float top = min = mEngine.getPosition(minProgress, true) - mTrackWidth / 2f;
+				float bottom = max = mEngine.getPosition(maxProgress, true) + mTrackWidth / 2f;
 				mRectF.set(left, top, right, bottom);
 				canvas.drawRoundRect(mRectF, mTrackWidth / 2f, mTrackWidth / 2f, mPaint);
 			} else {
-				float top = min = getPosition(length, 0, false) - mTrackWidth / 2f;
-				float bottom = max = getPosition(length, mMinProgress, true) + mTrackWidth / 2f;
+				float top = min = mEngine.getPosition(0, false) - mTrackWidth / 2f;
+				float bottom = max = mEngine.getPosition(minProgress, true) + mTrackWidth / 2f;
 				mRectF.set(left, top, right, bottom);
-				if (mTickMarkPatterns == null || mTickMarkPatterns.size() == 0 ||
-						mTickMarkPatterns.get(0) instanceof Dot) {
+				if (!hasTickMarks() || getTickMarkKind(0) == TickMarkPattern.DOT) {
 					canvas.drawRoundRect(mRectF, mTrackWidth / 2f, mTrackWidth / 2f, mPaint);
 				} else {
 					canvas.drawRect(mRectF, mPaint);
@@ -1115,151 +1733,436 @@ public class DiscreteSlider extends View {
 		float cx = (getWidth() - getPaddingLeft() - getPaddingRight()) / 2f + getPaddingLeft();
 		float cy = (getHeight() - getPaddingTop() - getPaddingBottom()) / 2f + getPaddingTop();
 
-		if (mTickMarkPatterns != null && mTickMarkPatterns.size() > 0) {
-			if (mOrientation == HORIZONTAL) {
-				for (int i = 0; i < mCount; i++) {
-					if (i % mTickMarkStep != 0) {
-						continue;
-					}
-
-					Object pattern = mTickMarkPatterns.get(i % mTickMarkPatterns.size());
-					cx = getPosition(length, i, false);
-
-					if (min <= cx && cx <= max) {
-						mPaint.setColor(mTickMarkColor);
-					} else {
-						mPaint.setColor(mTickMarkInactiveColor);
-					}
-
-					if (pattern instanceof Dot) {
-						canvas.drawCircle(cx, cy, mTrackWidth / 2f, mPaint);
-					} else {
-						float dashLength = ((Dash) pattern).length;
-						canvas.drawRect(cx - dashLength / 2f, cy - mTrackWidth / 2f,
-								cx + dashLength / 2f, cy + mTrackWidth / 2f, mPaint);
-					}
-				}
-			} else {
-				for (int i = 0; i < mCount; i++) {
-					if (i % mTickMarkStep != 0) {
-						continue;
-					}
-
-					Object pattern = mTickMarkPatterns.get(i % mTickMarkPatterns.size());
-					cy = getPosition(length, i, false);
-
-					if (min <= cy && cy <= max) {
-						mPaint.setColor(mTickMarkColor);
-					} else {
-						mPaint.setColor(mTickMarkInactiveColor);
-					}
-
-					if (pattern instanceof Dot) {
-						canvas.drawCircle(cx, cy, mTrackWidth / 2f, mPaint);
-					} else {
-						float dashLength = ((Dash) pattern).length;
-						canvas.drawRect(cx - mTrackWidth / 2f, cy - dashLength / 2f,
-								cx + mTrackWidth / 2f, cy + dashLength / 2f, mPaint);
-					}
-				}
+		if (hasTickMarks()) {
+			boolean tracedTickMarks = SliderTrace.begin(SliderTrace.DRAW_TICK_MARKS);
+			try {
+				drawTickMarks(canvas, cx, cy, length, min, max);
+			} finally {
+				SliderTrace.end(tracedTickMarks);
 			}
 		}
 
 		if (mOrientation == HORIZONTAL) {
-			cx = getPosition(length, mMinProgress, true);
+			cx = mEngine.getPosition(minProgress, true);
 		} else {
-			cy = getPosition(length, mMinProgress, true);
+			cy = mEngine.getPosition(minProgress, true);
 		}
 
 		float _cx = cx;
 		float _cy = cy;
-		float dp6 = Utils.convertDpToPixel(6, getContext());
+		float dp6 = mDp6;
 		float ratio = mRadius / dp6;
 		if (mOrientation == HORIZONTAL) {
 			if (mValueLabelGravity == TOP) {
-				_cy -= dp6 + Utils.convertDpToPixel(16, getContext()) + dp6 * 3;
+				_cy -= dp6 + mDp16 + dp6 * 3;
 				_cy = cy + (_cy - cy) * mValueLabelAnimValue * ratio;
 			} else if (mValueLabelGravity == BOTTOM) {
-				_cy += dp6 + Utils.convertDpToPixel(16, getContext()) + dp6 * 3;
+				_cy += dp6 + mDp16 + dp6 * 3;
 				_cy = cy + (_cy - cy) * mValueLabelAnimValue * ratio;
 			}
 		} else {
 			if (mValueLabelGravity == RIGHT) {
-				_cx += dp6 + Utils.convertDpToPixel(16, getContext()) + dp6 * 3;
+				_cx += dp6 + mDp16 + dp6 * 3;
 				_cx = cx + (_cx - cx) * mValueLabelAnimValue * ratio;
 			} else if (mValueLabelGravity == LEFT) {
-				_cx -= dp6 + Utils.convertDpToPixel(16, getContext()) + dp6 * 3;
+				_cx -= dp6 + mDp16 + dp6 * 3;
 				_cx = cx + (_cx - cx) * mValueLabelAnimValue * ratio;
 			}
 		}
-		if (mPendingPosition == mMinProgress && mPendingPosition != -1 &&
-				mValueLabelAnimValue > 0 && isValueLabelVisible) {
+		if (pendingPosition == minProgress && pendingPosition != -1 && mValueLabelAnimValue > 0 &&
+				isValueLabelVisible) {
+			boolean tracedValueLabel = SliderTrace.begin(SliderTrace.DRAW_VALUE_LABEL);
+			try {
+				mPaint.setColor(mThumbColor);
+				drawValueLabelPath(canvas, cx, cy);
+				canvas.drawCircle(_cx, _cy, mRadius * 3 * mValueLabelAnimValue, mPaint);
+				// Formats the label with the user's formatter on a cache miss.
+				drawValueLabel(canvas, cx, cy, _cx, _cy);
+			} finally {
+				SliderTrace.end(tracedValueLabel);
+			}
+		}
+
+		onDrawThumb(canvas, cx, cy, pressedPosition != -1 && pressedPosition == minProgress);
+
+		if (mEngine.isRange()) {
 			mPaint.setColor(mThumbColor);
-			canvas.drawPath(mValueLabelPath, mPaint);
-			canvas.drawCircle(_cx, _cy, mRadius * 3 * mValueLabelAnimValue, mPaint);
-			drawValueLabel(canvas, cx, cy, _cx, _cy, length);
+			if (mOrientation == HORIZONTAL) {
+				cx = mEngine.getPosition(maxProgress, true);
+				_cx = cx;
+			} else {
+				cy = mEngine.getPosition(maxProgress, true);
+				_cy = cy;
+			}
+
+			if (pendingPosition == maxProgress && mValueLabelAnimValue > 0 &&
+					isValueLabelVisible) {
+				boolean tracedValueLabel = SliderTrace.begin(SliderTrace.DRAW_VALUE_LABEL);
+				try {
+					drawValueLabelPath(canvas, cx, cy);
+					canvas.drawCircle(_cx, _cy, mRadius * 3 * mValueLabelAnimValue, mPaint);
+					drawValueLabel(canvas, cx, cy, _cx, _cy);
+				} finally {
+					SliderTrace.end(tracedValueLabel);
+				}
+			}
+
+			onDrawThumb(canvas, cx, cy, pressedPosition != -1 && pressedPosition == maxProgress);
 		}
+	}
 
-		onDrawThumb(canvas, cx, cy, mPressedPosition != -1 && mPressedPosition == mMinProgress);
+	/**
+	 * The state update step, run on input and animation ticks instead of while drawing. It
+	 * snaps the thumbs as they are shown, offset included, and when a thumb reaches another
+	 * tick queues the haptic feedback and the listener event. This keeps
+	 * {@link #onDraw(Canvas)} free of side effects and user code. A released thumb still
+	 * ticks on its way to the landing tick, but the listener was told that one on release.
+	 */
+	private void updateState() {
+		int changed = mEngine.update();
+		if ((changed & SliderEngine.CHANGED_MIN) != 0) {
+			queueTickHaptic();
+			if (!mSettleDispatched) {
+				queueValueChanged(mEngine.getShownMinProgress(), mEngine.getMaxProgress());
+			}
+		}
+		if ((changed & SliderEngine.CHANGED_MAX) != 0) {
+			queueTickHaptic();
+			if (!mSettleDispatched) {
+				queueValueChanged(mEngine.getMinProgress(), mEngine.getShownMaxProgress());
+			}
+		}
+	}
 
-		int progress;
+	/**
+	 * Draws the cached tick mark layer, ticks whose center is between {@code min} and
+	 * {@code max} in the active color and the others in the inactive color. The layer is an
+	 * alpha mask, so both colors come from the paint and a color change needs no rebuild.
+	 */
+	private void drawTickMarks(Canvas canvas, float cx, float cy, float length, float min,
+	                           float max) {
+		if (!ensureTickMarkLayer(cx, cy, length)) {
+			return;
+		}
+
+		// The first and the last active tick mark.
+		int lastMark = getDrawnTickMarkCount() - 1;
+		int first, last;
+		if (mContinuous) {
+			float step = length / lastMark;
+			first = TickSnapper.getCeilIndex(min, getOrigin(), mRadius, step, lastMark + 1);
+			last = TickSnapper.getFloorIndex(max, getOrigin(), mRadius, step, lastMark + 1);
+		} else {
+			first = mEngine.getCeilPosition(min);
+			first = (first + mTickMarkStep - 1) / mTickMarkStep;
+			last = mEngine.getFloorPosition(max);
+			last = last < 0 ? -1 : last / mTickMarkStep;
+		}
+
+		// Split the layer halfway between the outermost active ticks and their neighbours, so
+		// every tick is drawn in a single color like before.
+		float size = mOrientation == HORIZONTAL ? getWidth() : getHeight();
+		if (first <= last && first <= lastMark) {
+			float start = first == 0 ? 0 : (getTickMarkPosition(length, first - 1) +
+					getTickMarkPosition(length, first)) / 2f;
+			float end = last >= lastMark ? size : (getTickMarkPosition(length, last) +
+					getTickMarkPosition(length, last + 1)) / 2f;
+			drawTickMarkLayer(canvas, 0, start, mTickMarkInactiveColor);
+			drawTickMarkLayer(canvas, start, end, mTickMarkColor);
+			drawTickMarkLayer(canvas, end, size, mTickMarkInactiveColor);
+		} else {
+			drawTickMarkLayer(canvas, 0, size, mTickMarkInactiveColor);
+		}
+	}
+
+	private void drawTickMarkLayer(Canvas canvas, float from, float to, @ColorInt int color) {
+		if (from >= to) {
+			return;
+		}
+		int saveCount = canvas.save();
 		if (mOrientation == HORIZONTAL) {
-			progress = (int) getClosestPosition(cx, length)[0];
+			canvas.clipRect(from, 0, to, getHeight());
 		} else {
-			progress = (int) getClosestPosition(cy, length)[0];
+			canvas.clipRect(0, from, getWidth(), to);
+		}
+		mPaint.setColor(color);
+		canvas.drawBitmap(mTickMarkLayer, 0, 0, mPaint);
+		canvas.restoreToCount(saveCount);
+		if (mMetrics != null) {
+			mMetrics.addTickMarkLayerDraw();
+		}
+	}
+
+	/**
+	 * Records the tick marks into {@link #mTickMarkLayer} when the tick geometry changed.
+	 *
+	 * @return {@code true} if the layer can be drawn
+	 */
+	private boolean ensureTickMarkLayer(float cx, float cy, float length) {
+		if (length <= 0 || getWidth() <= 0 || getHeight() <= 0) {
+			return false;
 		}
-		if (mTmpMinProgress != progress) {
-			mTmpMinProgress = progress;
-			if (isHapticFeedbackEnabled()) {
-				performHapticFeedback(HapticFeedbackConstants.VIRTUAL_KEY);
+		float center = mOrientation == HORIZONTAL ? cy : cx;
+		if (mTickMarkLayer != null && !mTickMarkLayerInvalid &&
+				mTickMarkLayer.getWidth() == getWidth() &&
+				mTickMarkLayer.getHeight() == getHeight() &&
+				mTickMarkLayerOrigin == getOrigin() && mTickMarkLayerLength == length &&
+				mTickMarkLayerCenter == center) {
+			return true;
+		}
+
+		float[] key = getTickMarkLayerKey(center, length);
+		// Only detaching releases a shared layer, so a slider which is never attached must not
+		// take one.
+		boolean attached = isAttached();
+		Bitmap layer = attached ? TICK_MARK_LAYERS.acquire(key) : null;
+		if (layer != null) {
+			releaseTickMarkLayer();
+			mTickMarkLayer = layer;
+			mTickMarkLayerShared = true;
+			onTickMarkLayerReady(center, length);
+			return true;
+		}
+
+		if (mTickMarkLayer != null &&
+				(!mTickMarkLayerShared || TICK_MARK_LAYERS.getRefCount(mTickMarkLayer) == 1) &&
+				mTickMarkLayer.getWidth() == getWidth() &&
+				mTickMarkLayer.getHeight() == getHeight()) {
+			// Nobody else draws this layer, record the new ticks into it.
+			mTickMarkLayer.eraseColor(Color.TRANSPARENT);
+			if (mTickMarkLayerShared) {
+				TICK_MARK_LAYERS.setKey(mTickMarkLayer, key);
+			} else if (attached) {
+				TICK_MARK_LAYERS.put(key, mTickMarkLayer);
+				mTickMarkLayerShared = true;
 			}
-			if (mListener != null && mValueChangedImmediately) {
-				if (mMaxProgress != -1 && mMode != MODE_NORMAL) {
-					mListener.onValueChanged(progress + mProgressOffset,
-							mMaxProgress + mProgressOffset, true);
-				} else {
-					mListener.onValueChanged(progress + mProgressOffset, true);
+		} else {
+			releaseTickMarkLayer();
+			try {
+				layer = Bitmap.createBitmap(getWidth(), getHeight(), Bitmap.Config.ALPHA_8);
+			} catch (OutOfMemoryError e) {
+				return false;
+			}
+			if (attached) {
+				TICK_MARK_LAYERS.put(key, layer);
+			}
+			mTickMarkLayer = layer;
+			mTickMarkLayerShared = attached;
+		}
+		boolean traced = SliderTrace.begin(SliderTrace.RECORD_TICK_MARKS);
+		TICK_MARK_LAYER_CANVAS.setBitmap(mTickMarkLayer);
+
+		TickMarkPattern pattern = getStepTickMarkPattern();
+		byte[] kinds = pattern.kinds;
+		float[] lengths = pattern.lengths;
+		mPaint.setColor(Color.BLACK);
+
+		// Tick marks closer than the minimum spacing would only overdraw each other, so keep
+		// every n-th one and the last one, which bounds the loop by the track length in pixels.
+		int lastMark = getDrawnTickMarkCount() - 1;
+		int j, e;
+		if (mTickFractions == null) {
+			int stride = 1;
+			float spacing = mContinuous ? length / lastMark :
+					length / (mCount - 1) * mTickMarkStep;
+			if (spacing < mTickMarkMinSpacing) {
+				stride = (int) Math.min(Math.ceil(mTickMarkMinSpacing / spacing), lastMark + 1);
+			}
+			for (j = 0; j <= lastMark; j += stride) {
+				e = j % kinds.length;
+				recordTickMark(getTickMarkPosition(length, j), kinds[e], lengths[e], cx, cy);
+			}
+			if (j - stride != lastMark) {
+				e = lastMark % kinds.length;
+				recordTickMark(getTickMarkPosition(length, lastMark), kinds[e], lengths[e], cx,
+						cy);
+			}
+		} else {
+			// The spacing varies along the track, skip marks too close to the last drawn one.
+			float drawn = -Float.MAX_VALUE;
+			for (j = 0; j < lastMark; j++) {
+				float p = getTickMarkPosition(length, j);
+				if (p - drawn >= mTickMarkMinSpacing) {
+					drawn = p;
+					e = j % kinds.length;
+					recordTickMark(p, kinds[e], lengths[e], cx, cy);
 				}
 			}
+			e = lastMark % kinds.length;
+			recordTickMark(getTickMarkPosition(length, lastMark), kinds[e], lengths[e], cx, cy);
 		}
+		TICK_MARK_LAYER_CANVAS.setBitmap(null);
+		SliderTrace.end(traced);
 
-		if (mMaxProgress != -1 && mMode != MODE_NORMAL) {
-			mPaint.setColor(mThumbColor);
-			if (mOrientation == HORIZONTAL) {
-				cx = getPosition(length, mMaxProgress, true);
-				_cx = cx;
-				progress = (int) getClosestPosition(cx, length)[0];
+		onTickMarkLayerReady(center, length);
+		return true;
+	}
+
+	private void onTickMarkLayerReady(float center, float length) {
+		mTickMarkLayerInvalid = false;
+		mTickMarkLayerOrigin = getOrigin();
+		mTickMarkLayerLength = length;
+		mTickMarkLayerCenter = center;
+	}
+
+	/**
+	 * Everything the tick mark layer is drawn from, sliders with equal keys can share it.
+	 */
+	private float[] getTickMarkLayerKey(float center, float length) {
+		byte[] kinds = mTickMarkPattern.kinds;
+		float[] lengths = mTickMarkPattern.lengths;
+		int size = 12 + kinds.length * 2;
+		float[] key = new float[size + (mTickFractions != null ? mTickFractions.length : 0)];
+		key[0] = getWidth();
+		key[1] = getHeight();
+		key[2] = mOrientation;
+		key[3] = getOrigin();
+		key[4] = length;
+		key[5] = center;
+		key[6] = mCount;
+		key[7] = mTickMarkStep;
+		key[8] = mTickMarkMinSpacing;
+		key[9] = mTrackWidth;
+		key[10] = mRadius;
+		key[11] = mContinuous ? mTickMarkCount : -1;
+		for (int i = 0; i < kinds.length; i++) {
+			key[12 + i * 2] = kinds[i];
+			key[13 + i * 2] = lengths[i];
+		}
+		if (mTickFractions != null) {
+			System.arraycopy(mTickFractions, 0, key, size, mTickFractions.length);
+		}
+		return key;
+	}
+
+	private void recordTickMark(float p, byte kind, float dashLength, float cx, float cy) {
+		if (mMetrics != null) {
+			mMetrics.addTickMarkRecorded();
+		}
+		if (mOrientation == HORIZONTAL) {
+			if (kind == TickMarkPattern.DOT) {
+				TICK_MARK_LAYER_CANVAS.drawCircle(p, cy, mTrackWidth / 2f, mPaint);
 			} else {
-				cy = getPosition(length, mMaxProgress, true);
-				_cy = cy;
-				progress = (int) getClosestPosition(cy, length)[0];
+				TICK_MARK_LAYER_CANVAS.drawRect(p - dashLength / 2f, cy - mTrackWidth / 2f,
+						p + dashLength / 2f, cy + mTrackWidth / 2f, mPaint);
 			}
-
-			if (mPendingPosition == mMaxProgress && mValueLabelAnimValue > 0 &&
-					isValueLabelVisible) {
-				canvas.drawPath(mValueLabelPath, mPaint);
-				canvas.drawCircle(_cx, _cy, mRadius * 3 * mValueLabelAnimValue, mPaint);
-				drawValueLabel(canvas, cx, cy, _cx, _cy, length);
+		} else {
+			if (kind == TickMarkPattern.DOT) {
+				TICK_MARK_LAYER_CANVAS.drawCircle(cx, p, mTrackWidth / 2f, mPaint);
+			} else {
+				TICK_MARK_LAYER_CANVAS.drawRect(cx - mTrackWidth / 2f, p - dashLength / 2f,
+						cx + mTrackWidth / 2f, p + dashLength / 2f, mPaint);
 			}
+		}
+	}
 
-			onDrawThumb(canvas, cx, cy, mPressedPosition != -1 && mPressedPosition == mMaxProgress);
+	private void invalidateTickMarkLayer() {
+		mTickMarkLayerInvalid = true;
+	}
 
-			if (mTmpMaxProgress != progress) {
-				mTmpMaxProgress = progress;
-				if (isHapticFeedbackEnabled()) {
-					performHapticFeedback(HapticFeedbackConstants.VIRTUAL_KEY);
-				}
-				if (mListener != null && mValueChangedImmediately) {
-					if (mMaxProgress != -1 && mMode != MODE_NORMAL) {
-						mListener.onValueChanged(mMinProgress + mProgressOffset,
-								progress + mProgressOffset, true);
-					}
-				}
+	@Override
+	protected void onDetachedFromWindow() {
+		super.onDetachedFromWindow();
+		flushDragFrame();
+		cancelQueuedValueChanged();
+		if (mHapticQueued) {
+			mHapticQueued = false;
+			mHapticTicks = 0;
+			removeCallbacks(mHapticRunnable);
+		}
+		if (mMetricsQueued) {
+			mMetricsQueued = false;
+			mMetricsReport.reset();
+			removeCallbacks(mMetricsRunnable);
+		}
+		releaseTickMarkLayer();
+	}
+
+	/**
+	 * Drops the tick mark layer, handing a shared one back to {@link #TICK_MARK_LAYERS}.
+	 */
+	private void releaseTickMarkLayer() {
+		if (mTickMarkLayer != null) {
+			if (mTickMarkLayerShared) {
+				TICK_MARK_LAYERS.release(mTickMarkLayer);
 			}
+			mTickMarkLayer = null;
+			mTickMarkLayerShared = false;
+		}
+	}
 
+	private boolean isAttached() {
+		if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT) {
+			return isAttachedToWindow();
+		}
+		return getWindowToken() != null;
+	}
+
+	/**
+	 * Invalidates only the area which can change while a thumb moves or its value label
+	 * animates: the thumbs and value labels as drawn in the last frame and as they will be drawn
+	 * in the next one. The bounding box of both also covers the active track and the tick
+	 * marks between the old and the new thumb position.
+	 */
+	private void invalidateDynamicBounds() {
+		getDynamicBounds(DIRTY_BOUNDS);
+		DIRTY_BOUNDS.union(mDrawnDynamicBounds);
+		if (DIRTY_BOUNDS.isEmpty()) {
+			invalidate();
+		} else {
+			invalidate(DIRTY_BOUNDS);
 		}
 	}
 
+	private void getDynamicBounds(Rect out) {
+		DYNAMIC_BOUNDS.setEmpty();
+		addThumbBounds(mEngine.getPosition(mEngine.getMinProgress(), true));
+		if (mEngine.isRange()) {
+			addThumbBounds(mEngine.getPosition(mEngine.getMaxProgress(), true));
+		}
+		DYNAMIC_BOUNDS.roundOut(out);
+		if (!out.isEmpty()) {
+			// Leave room for anti-aliasing.
+			out.inset(-1, -1);
+		}
+	}
+
+	private void addThumbBounds(float p) {
+		float cx, cy;
+		if (mOrientation == HORIZONTAL) {
+			cx = p;
+			cy = (getHeight() - getPaddingTop() - getPaddingBottom()) / 2f + getPaddingTop();
+		} else {
+			cx = (getWidth() - getPaddingLeft() - getPaddingRight()) / 2f + getPaddingLeft();
+			cy = p;
+		}
+		// Subclasses may draw a larger thumb and report it through getSize().
+		float radius = Math.max(mRadius * 3.5f, getSize() / 2f);
+		DYNAMIC_BOUNDS.union(cx - radius, cy - radius, cx + radius, cy + radius);
+
+		if (mValueLabelAnimValue > 0) {
+			float reach = (mDp6 * 7 + mDp16) * mRadius / mDp6, width = mRadius * 3;
+			if (mValueLabelGravity == TOP) {
+				DYNAMIC_BOUNDS.union(cx - width, cy - reach, cx + width, cy);
+			} else if (mValueLabelGravity == BOTTOM) {
+				DYNAMIC_BOUNDS.union(cx - width, cy, cx + width, cy + reach);
+			} else if (mValueLabelGravity == RIGHT) {
+				DYNAMIC_BOUNDS.union(cx, cy - width, cx + reach, cy + width);
+			} else {
+				DYNAMIC_BOUNDS.union(cx - reach, cy - width, cx, cy + width);
+			}
+		}
+	}
+
+	/**
+	 * Returns the area in pixels of the region redrawn by the last {@link #onDraw(Canvas)}.
+	 * Only meaningful for software rendering, hardware accelerated views always redraw the
+	 * whole view.
+	 */
+	public long getLastDrawnArea() {
+		return mLastDrawnArea;
+	}
+
 	public void onDrawThumb(Canvas canvas, float cx, float cy, boolean hasTouched) {
 		if (hasTouched) {
 			mPaint.setColor(mThumbPressedColor);
@@ -1269,8 +2172,7 @@ public class DiscreteSlider extends View {
 		canvas.drawCircle(cx, cy, mRadius, mPaint);
 	}
 
-	private void drawValueLabel(Canvas canvas, float cx, float cy, float _cx, float _cy,
-	                            float length) {
+	private void drawValueLabel(Canvas canvas, float cx, float cy, float _cx, float _cy) {
 		if (mValueLabelGravity == TOP && _cy + mRadius * 3 * mValueLabelAnimValue > cy - mRadius) {
 			return;
 		} else if (mValueLabelGravity == BOTTOM &&
@@ -1284,20 +2186,65 @@ public class DiscreteSlider extends View {
 			return;
 		}
 
-		String label;
+		int progress;
 		if (mOrientation == HORIZONTAL) {
-			label = mValueLabelFormatter
-					.getLabel((int) getClosestPosition(cx, length)[0] + mProgressOffset);
+			progress = mEngine.getClosestPosition(cx);
 		} else {
-			label = mValueLabelFormatter
-					.getLabel((int) getClosestPosition(cy, length)[0] + mProgressOffset);
+			progress = mEngine.getClosestPosition(cy);
 		}
+		int index = getValueLabel(progress);
+		String label = mValueLabelCache.getLabel(index);
 		if (!TextUtils.isEmpty(label)) {
-			mPaint.setTextSize(mValueLabelTextSize * mValueLabelAnimValue);
+			// Bounds are measured at the full text size and scaled with the animation.
+			float scale = mValueLabelAnimValue;
+			float left = mValueLabelCache.getLeft(index) * scale;
+			float right = mValueLabelCache.getRight(index) * scale;
+			float top = mValueLabelCache.getTop(index) * scale;
+			float bottom = mValueLabelCache.getBottom(index) * scale;
+			float width = right - left, height = bottom - top;
+			mPaint.setTextSize(mValueLabelTextSize * scale);
 			mPaint.setColor(mValueLabelTextColor);
-			mPaint.getTextBounds(label, 0, label.length(), mBounds);
-			canvas.drawText(label, _cx - mBounds.width() / 2f - mBounds.left,
-					_cy + mBounds.height() / 2f - mBounds.bottom, mPaint);
+			canvas.drawText(label, _cx - width / 2f - left, _cy + height / 2f - bottom, mPaint);
+		}
+	}
+
+	/**
+	 * Returns the {@link #mValueLabelCache} entry of {@code progress}, formatting and measuring
+	 * the label only if it is not cached yet.
+	 */
+	private int getValueLabel(int progress) {
+		if (mValueLabelCache == null) {
+			mValueLabelCache = new LabelCache(32);
+		}
+		int index = mValueLabelCache.indexOf(progress);
+		if (mMetrics != null) {
+			mMetrics.addLabelCacheLookup(index != -1);
+		}
+		if (index == -1) {
+			String label;
+			if (!mContinuous) {
+				label = mValueLabelFormatter.getLabel(progress + mProgressOffset);
+			} else if (mValueLabelFormatter == DEFAULT_VALUE_LABEL_FORMATTER) {
+				// The default labels show no more decimals than the precision has.
+				label = LabelFormat.format(getValueOf(progress), mValueDecimals);
+			} else {
+				label = mValueLabelFormatter.getLabel(getValueOf(progress));
+			}
+			if (!TextUtils.isEmpty(label)) {
+				mPaint.setTextSize(mValueLabelTextSize);
+				mPaint.getTextBounds(label, 0, label.length(), TEXT_BOUNDS);
+			} else {
+				TEXT_BOUNDS.setEmpty();
+			}
+			index = mValueLabelCache.put(progress, label, TEXT_BOUNDS.left, TEXT_BOUNDS.top,
+					TEXT_BOUNDS.right, TEXT_BOUNDS.bottom);
+		}
+		return index;
+	}
+
+	private void clearValueLabelCache() {
+		if (mValueLabelCache != null) {
+			mValueLabelCache.clear();
 		}
 	}
 
@@ -1306,52 +2253,98 @@ public class DiscreteSlider extends View {
 		@Override
 		public boolean onMove(MoveGestureDetector detector) {
 			PointF d = detector.getFocusDelta();
-			if (mOrientation == HORIZONTAL) {
-				mOffset += d.x;
-			} else {
-				mOffset += d.y;
-			}
-			if ((mPendingPosition == mMinProgress ||
-					mPendingPosition == mMaxProgress && mMode != MODE_NORMAL) &&
-					mPendingPosition != -1) {
-				mOffset = Math.min(Math.max(mOffset, mMinOffset), mMaxOffset);
-				generateValueLabelPath();
-				if (Math.abs(mOffset) >= mRadius * 2 && !mValueLabelIsShowing &&
-						(mValueLabelMode & 0x1) == 1) {
-					animValueLabel();
-				} else if ((mValueLabelMode & 0x1) == 1) {
-					mShowValueLabelHandler.removeCallbacksAndMessages(null);
+			if (mEngine.move(mOrientation == HORIZONTAL ? d.x : d.y)) {
+				if (isFrameSynced()) {
+					scheduleDragFrame();
+				} else {
+					onDragFrame();
 				}
-			} else if (Math.abs(mOffset) >= mRadius * 3.5) {
-				mSkipMove = true;
 			}
 			return true;
 		}
 	}
 
-	private void generateValueLabelPath() {
-		float r2 = Utils.convertDpToPixel(6, getContext()), cx2, cy2;
-		float r1 = r2 * 3, cx1, cy1;
-		float ratio = mRadius / r2;
+	/**
+	 * The work derived from the accumulated offset of a dragged thumb. Runs after
+	 * every move event, or once per frame when frame sync is enabled.
+	 */
+	private void onDragFrame() {
+		updateState();
+		if (Math.abs(mEngine.getOffset()) >= mRadius * 2 && !mValueLabelIsShowing &&
+				(mValueLabelMode & 0x1) == 1) {
+			animValueLabel();
+		} else if ((mValueLabelMode & 0x1) == 1) {
+			removeCallbacks(mHideValueLabelRunnable);
+		}
+	}
 
-		float length = mLength - mTrackWidth;
-		if (mPendingPosition == mMinProgress || mMaxProgress != -1 && mMode != MODE_NORMAL) {
-			if (mOrientation == HORIZONTAL) {
-				cy2 = (getHeight() - getPaddingTop() - getPaddingBottom()) / 2f + getPaddingTop();
-				cx2 = getPosition(length, mPendingPosition, true);
-			} else {
-				cy2 = getPosition(length, mPendingPosition, true);
-				cx2 = (getWidth() - getPaddingLeft() - getPaddingRight()) / 2f + getPaddingLeft();
+	private boolean isFrameSynced() {
+		return mFrameSyncEnabled && Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN;
+	}
+
+	private void scheduleDragFrame() {
+		if (mDragFrameScheduled) {
+			return;
+		}
+		if (mDragFrameCallback == null) {
+			mDragFrameCallback = new Choreographer.FrameCallback() {
+
+				@Override
+				public void doFrame(long frameTimeNanos) {
+					mDragFrameScheduled = false;
+					onDragFrame();
+					invalidateDynamicBounds();
+				}
+			};
+		}
+		mDragFrameScheduled = true;
+		Choreographer.getInstance().postFrameCallback(mDragFrameCallback);
+	}
+
+	/**
+	 * Runs the pending drag frame right away, so a gesture never ends with unprocessed moves.
+	 */
+	private void flushDragFrame() {
+		if (mDragFrameScheduled) {
+			Choreographer.getInstance().removeFrameCallback(mDragFrameCallback);
+			mDragFrameScheduled = false;
+			onDragFrame();
+		}
+	}
+
+	/**
+	 * Builds the value label bubble around a thumb centered at (0, 0) with the default 6dp
+	 * thumb radius. The shape only depends on the gravity and the density, every frame just
+	 * translates and scales it on the canvas, so all sliders share one path per gravity.
+	 */
+	private void generateValueLabelPath() {
+		boolean traced = SliderTrace.begin(SliderTrace.VALUE_LABEL_PATH);
+		long start = startPhase();
+		mValueLabelPathInvalid = false;
+
+		int g = mValueLabelGravity / 90;
+		if (VALUE_LABEL_PATHS[g] == null || VALUE_LABEL_PATH_DENSITIES[g] != mDp1) {
+			// Sliders on a display of another density may still draw the old path.
+			VALUE_LABEL_PATHS[g] = new Path();
+			VALUE_LABEL_PATH_DENSITIES[g] = mDp1;
+			mValueLabelPath = VALUE_LABEL_PATHS[g];
+			buildValueLabelPath(mValueLabelPath);
+			if (mMetrics != null) {
+				mMetrics.addPathRebuild();
 			}
 		} else {
-			mValueLabelPath.reset();
-			return;
+			mValueLabelPath = VALUE_LABEL_PATHS[g];
 		}
-		cx1 = cx2;
-		cy1 = cy2;
+		endPhase(SliderMetrics.PHASE_VALUE_LABEL_PATH, start);
+		SliderTrace.end(traced);
+	}
+
+	private void buildValueLabelPath(Path path) {
+
+		float r2 = mDp6, cx2 = 0, cy2 = 0;
+		float r1 = r2 * 3, cx1 = cx2, cy1 = cy2;
 
-		float dp1 = Utils.convertDpToPixel(1, getContext()), dp16 =
-				Utils.convertDpToPixel(16, getContext());
+		float dp1 = mDp1, dp16 = mDp16;
 		float ox1, oy1, ox2, oy2;
 		if (mValueLabelGravity == TOP) {
 			cy1 -= r2 + dp16 + r1;
@@ -1376,77 +2369,67 @@ public class DiscreteSlider extends View {
 		}
 
 		if (mValueLabelGravity == TOP && cy1 + r1 >= cy2 - r2) {
-			mValueLabelPath.reset();
 			return;
 		} else if (mValueLabelGravity == BOTTOM && cy1 - r1 <= cy2 + r2) {
-			mValueLabelPath.reset();
 			return;
 		} else if (mValueLabelGravity == RIGHT && cx1 - r1 <= cx2 + r2) {
-			mValueLabelPath.reset();
 			return;
 		} else if (mValueLabelGravity == LEFT && cx1 + r1 >= cx2 - r2) {
-			mValueLabelPath.reset();
 			return;
 		}
 
-		mValueLabelPath.reset();
+		int g = mValueLabelGravity / 90;
 		mRectF.set(cx1 - r1, cy1 - r1, cx1 + r1, cy1 + r1);
-		mValueLabelPath.arcTo(mRectF, 135 + mValueLabelGravity, 270, true);
-		mValueLabelPath.quadTo(cx1 + ox1, cy1 + oy1,
-				cx2 + r2 * (float) Math.cos(Math.toRadians(-45 + mValueLabelGravity)),
-				cy2 + r2 * (float) Math.sin(Math.toRadians(-45 + mValueLabelGravity)));
+		path.arcTo(mRectF, 135 + mValueLabelGravity, 270, true);
+		path.quadTo(cx1 + ox1, cy1 + oy1, cx2 + r2 * COS_NECK[g],
+				cy2 + r2 * SIN_NECK[g]);
 		mRectF.set(cx2 - r2, cy2 - r2, cx2 + r2, cy2 + r2);
-		mValueLabelPath.arcTo(mRectF, -45 + mValueLabelGravity, 270, true);
-		mValueLabelPath.quadTo(cx1 + ox2, cy1 + oy2,
-				cx1 + r1 * (float) Math.cos(Math.toRadians(135 + mValueLabelGravity)),
-				cy1 + r1 * (float) Math.sin(Math.toRadians(135 + mValueLabelGravity)));
-		mValueLabelPath
-				.moveTo(cx1 + r1 * (float) Math.cos(Math.toRadians(135 + mValueLabelGravity)),
-						cy1 + r1 * (float) Math.sin(Math.toRadians(135 + mValueLabelGravity)));
-		mValueLabelPath.close();
-
-		if (mValueLabelAnimValue * ratio != 1) {
-			mValueLabelPath.computeBounds(mRectF, true);
-			if (mOrientation == HORIZONTAL) {
-				mValueLabelMatrix
-						.setScale(mValueLabelAnimValue * ratio, mValueLabelAnimValue * ratio,
-								mRectF.centerX(), cy2);
-			} else {
-				mValueLabelMatrix
-						.setScale(mValueLabelAnimValue * ratio, mValueLabelAnimValue * ratio, cx2,
-								mRectF.centerY());
-			}
-			mValueLabelPath.transform(mValueLabelMatrix);
-		}
+		path.arcTo(mRectF, -45 + mValueLabelGravity, 270, true);
+		path.quadTo(cx1 + ox2, cy1 + oy2, cx1 + r1 * COS_BUBBLE[g],
+				cy1 + r1 * SIN_BUBBLE[g]);
+		path.moveTo(cx1 + r1 * COS_BUBBLE[g], cy1 + r1 * SIN_BUBBLE[g]);
+		path.close();
 	}
 
-	private float[] getClosestPosition(float p, float length) {
-		float dis = Float.MAX_VALUE;
-		int position = -1;
-		for (int i = 0; i < mCount; i++) {
-			float _dis = getPosition(length, i, false) - p;
-			if (Math.abs(_dis) < Math.abs(dis)) {
-				dis = _dis;
-				position = i;
-			}
+	private void drawValueLabelPath(Canvas canvas, float cx, float cy) {
+		if (mValueLabelPathInvalid) {
+			generateValueLabelPath();
 		}
-		return new float[]{position, dis};
+		float scale = mValueLabelAnimValue * mRadius / mDp6;
+		int saveCount = canvas.save();
+		canvas.translate(cx, cy);
+		canvas.scale(scale, scale);
+		canvas.drawPath(mValueLabelPath, mPaint);
+		canvas.restoreToCount(saveCount);
 	}
 
-	private float getPosition(float length, int progress, boolean withOffset) {
-		if (mOrientation == HORIZONTAL) {
-			return getPaddingLeft() + length / (mCount - 1) * progress + mRadius +
-					(withOffset && mPendingPosition == progress ? mOffset : 0);
-		} else {
-			return getPaddingTop() + length / (mCount - 1) * progress + mRadius +
-					(withOffset && mPendingPosition == progress ? mOffset : 0);
-		}
+	private int getOrigin() {
+		return mOrientation == HORIZONTAL ? getPaddingLeft() : getPaddingTop();
 	}
 
 	public static abstract class ValueLabelFormatter {
 
 		@Nullable
 		public abstract String getLabel(int input);
+
+		/**
+		 * Returns the label of a value in continuous mode, by default the label of the
+		 * rounded value.
+		 */
+		@Nullable
+		public String getLabel(float input) {
+			return getLabel(Math.round(input));
+		}
+	}
+
+	public interface OnMetricsListener {
+
+		/**
+		 * Called once per drawn frame on the main thread, after the frame was drawn.
+		 *
+		 * @param metrics The counters of the frame, reused for the next one
+		 */
+		void onMetrics(@NonNull SliderMetrics metrics);
 	}
 
 	public static class OnValueChangedListener {
@@ -1460,5 +2443,15 @@ public class DiscreteSlider extends View {
 		public void onValueChanged(int minProgress, int maxProgress, boolean fromUser) {
 
 		}
+
+		// Only called in continuous mode when mode is {@Code MODE_NORMAL}
+		public void onValueChanged(float value, boolean fromUser) {
+
+		}
+
+		// Only called in continuous mode when mode is {@Code MODE_RANGE}
+		public void onValueChanged(float minValue, float maxValue, boolean fromUser) {
+
+		}
 	}
 }
@@ -0,0 +1,95 @@
+package hearsilent.discreteslider;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Decides how often {@link DiscreteSlider.OnValueChangedListener} hears about the value while
+ * a thumb is dragged or animated. Intermediate changes are queued and posted to the main
+ * thread, never dispatched from inside a draw pass, and a queued change is replaced by a
+ * newer one instead of piling up. Changes made by releasing a thumb or by the progress
+ * setters are dispatched right away under every policy and drop the queued change.
+ */
+public final class DispatchPolicy {
+
+	static final int KIND_IMMEDIATE = 0;
+	static final int KIND_THROTTLE = 1;
+	static final int KIND_DEBOUNCE = 2;
+	static final int KIND_LATEST_PER_FRAME = 3;
+	static final int KIND_ON_RELEASE = 4;
+
+	/**
+	 * Posts every change as soon as possible, changes made before the post runs are merged.
+	 */
+	public static final DispatchPolicy IMMEDIATE = new DispatchPolicy(KIND_IMMEDIATE, 0);
+
+	/**
+	 * Dispatches at most the latest change once per display frame.
+	 */
+	public static final DispatchPolicy LATEST_PER_FRAME =
+			new DispatchPolicy(KIND_LATEST_PER_FRAME, 0);
+
+	/**
+	 * Only dispatches the value a thumb is released on, the default.
+	 */
+	public static final DispatchPolicy ON_RELEASE = new DispatchPolicy(KIND_ON_RELEASE, 0);
+
+	final int kind;
+	final long interval;
+
+	private DispatchPolicy(int kind, long interval) {
+		this.kind = kind;
+		this.interval = interval;
+	}
+
+	/**
+	 * Dispatches the first change right away and then at most one change, the latest, per
+	 * {@code interval}.
+	 *
+	 * @param interval The minimum time between two dispatches in milliseconds
+	 */
+	@NonNull
+	public static DispatchPolicy throttle(long interval) {
+		if (interval <= 0) {
+			throw new IllegalArgumentException("Interval must be a positive number.");
+		}
+		return new DispatchPolicy(KIND_THROTTLE, interval);
+	}
+
+	/**
+	 * Dispatches the latest change once the value has not changed for {@code delay}.
+	 *
+	 * @param delay The quiet time in milliseconds
+	 */
+	@NonNull
+	public static DispatchPolicy debounce(long delay) {
+		if (delay <= 0) {
+			throw new IllegalArgumentException("Delay must be a positive number.");
+		}
+		return new DispatchPolicy(KIND_DEBOUNCE, delay);
+	}
+
+	/**
+	 * @return The throttle interval or the debounce delay in milliseconds, {@code 0} for the
+	 * other policies
+	 */
+	public long getInterval() {
+		return interval;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof DispatchPolicy)) {
+			return false;
+		}
+		DispatchPolicy policy = (DispatchPolicy) o;
+		return kind == policy.kind && interval == policy.interval;
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * kind + (int) (interval ^ (interval >>> 32));
+	}
+}
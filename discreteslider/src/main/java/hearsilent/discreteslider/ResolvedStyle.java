@@ -0,0 +1,217 @@
+package hearsilent.discreteslider;
+
+import android.content.Context;
+import android.content.res.Configuration;
+import android.content.res.Resources;
+import android.content.res.TypedArray;
+import android.graphics.Color;
+import android.text.TextUtils;
+import android.util.AttributeSet;
+import android.util.DisplayMetrics;
+import android.util.SparseArray;
+
+import java.util.HashMap;
+import java.util.WeakHashMap;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import hearsilent.discreteslider.libs.Utils;
+
+/**
+ * The {@link DiscreteSlider} attributes of a layout element, resolved against its style and
+ * theme. Elements which only reference a style resolve to the same values, so those are
+ * cached per theme and style and only the first slider inflated with them pays for
+ * {@code obtainStyledAttributes}. A cached style is resolved again once the configuration of
+ * the resources differs from the one it was resolved with, e.g. after a density, font scale
+ * or night mode change handled by the activity itself. Themes hash by their applied styles
+ * from API 23 on, so a theme changed with {@code applyStyle} misses the cache as well.
+ * Only use it from the main thread.
+ */
+final class ResolvedStyle {
+
+	private static final WeakHashMap<Resources.Theme, SparseArray<ResolvedStyle>> STYLES =
+			new WeakHashMap<>();
+	private static final HashMap<String, TickMarkPattern> TICK_MARK_PATTERNS = new HashMap<>();
+
+	// The configuration a cached style was resolved with, null for uncached ones.
+	@Nullable private Configuration mConfiguration;
+
+	final float trackWidth;
+	final int trackColor;
+	final int inactiveTrackColor;
+
+	final float radius;
+	final int thumbColor;
+	final int thumbPressedColor;
+
+	final int tickMarkColor;
+	final int tickMarkInactiveColor;
+	final int tickMarkStep;
+	final float tickMarkMinSpacing;
+	final boolean hasTickMarkPatterns;
+	@Nullable final TickMarkPattern tickMarkPattern;
+
+	final int valueLabelTextColor;
+	final float valueLabelTextSize;
+	final int valueLabelGravity;
+	final int valueLabelMode;
+	final int valueLabelDuration;
+
+	final int count;
+	final int mode;
+	final int progressOffset;
+	final int minProgress;
+	final int maxProgress;
+
+	final int orientation;
+	final boolean frameSync;
+	final boolean fling;
+
+	final int hapticMinInterval;
+	final boolean hapticVelocityAware;
+
+	/**
+	 * Resolves the slider attributes of {@code attrs}, from the cache when the element sets
+	 * none of them directly.
+	 */
+	@NonNull
+	static ResolvedStyle obtain(@NonNull Context context, @NonNull AttributeSet attrs) {
+		DisplayMetrics metrics = Utils.getDisplayMetrics(context);
+		Resources.Theme theme = context.getTheme();
+		if (theme == null || hasSliderAttributes(attrs)) {
+			return resolve(context, attrs, metrics);
+		}
+
+		int styleRes = attrs.getStyleAttribute();
+		SparseArray<ResolvedStyle> styles = STYLES.get(theme);
+		if (styles == null) {
+			styles = new SparseArray<>();
+			STYLES.put(theme, styles);
+		}
+		ResolvedStyle style = styles.get(styleRes);
+		Configuration configuration = context.getResources().getConfiguration();
+		if (style == null || !configuration.equals(style.mConfiguration)) {
+			style = resolve(context, attrs, metrics);
+			// The resources update their configuration in place, keep a copy to compare with.
+			style.mConfiguration = new Configuration(configuration);
+			styles.put(styleRes, style);
+		}
+		return style;
+	}
+
+	private static ResolvedStyle resolve(Context context, AttributeSet attrs,
+	                                     DisplayMetrics metrics) {
+		TypedArray a = context.obtainStyledAttributes(attrs, R.styleable.DiscreteSlider);
+		try {
+			return new ResolvedStyle(context, a, metrics);
+		} finally {
+			a.recycle();
+		}
+	}
+
+	/**
+	 * @return {@code true} if the element sets a slider attribute itself instead of only
+	 * through its style or theme
+	 */
+	private static boolean hasSliderAttributes(AttributeSet attrs) {
+		for (int i = 0; i < attrs.getAttributeCount(); i++) {
+			int name = attrs.getAttributeNameResource(i);
+			for (int attr : R.styleable.DiscreteSlider) {
+				if (attr == name) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private ResolvedStyle(Context context, TypedArray a, DisplayMetrics metrics) {
+		trackWidth = Math.max(a.getDimension(R.styleable.DiscreteSlider_ds_trackWidth,
+				Utils.convertDpToPixel(4, metrics)), Float.MIN_VALUE);
+		trackColor = a.getColor(R.styleable.DiscreteSlider_ds_trackColor, 0xff5123da);
+		inactiveTrackColor =
+				a.getColor(R.styleable.DiscreteSlider_ds_inactiveTrackColor, 0x3d5123da);
+
+		radius = Math.max(a.getDimension(R.styleable.DiscreteSlider_ds_thumbRadius,
+				Utils.convertDpToPixel(6, metrics)), Float.MIN_VALUE);
+		thumbColor = a.getColor(R.styleable.DiscreteSlider_ds_thumbColor, 0xff5123da);
+		thumbPressedColor =
+				a.getColor(R.styleable.DiscreteSlider_ds_thumbPressedColor, 0x1f5123da);
+
+		tickMarkColor = a.getColor(R.styleable.DiscreteSlider_ds_tickMarkColor, 0xff9972ed);
+		tickMarkInactiveColor =
+				a.getColor(R.styleable.DiscreteSlider_ds_tickMarkInactiveColor, 0xff936ce2);
+		tickMarkMinSpacing =
+				Math.max(a.getDimension(R.styleable.DiscreteSlider_ds_tickMarkMinSpacing, 1), 0);
+
+		valueLabelTextColor =
+				a.getColor(R.styleable.DiscreteSlider_ds_valueLabelTextColor, Color.WHITE);
+		valueLabelTextSize = a.getDimension(R.styleable.DiscreteSlider_ds_valueLabelTextSize,
+				Utils.convertSpToPixel(16, context));
+		valueLabelMode = a.getInt(R.styleable.DiscreteSlider_ds_valueLabelMode, 1);
+		valueLabelDuration =
+				Math.max(a.getInt(R.styleable.DiscreteSlider_ds_valueLabelDuration, 1500), 500);
+
+		count = Math.max(a.getInt(R.styleable.DiscreteSlider_ds_count, 11), 2);
+		mode = a.getInt(R.styleable.DiscreteSlider_ds_mode, DiscreteSlider.MODE_NORMAL);
+
+		int step = a.getInteger(R.styleable.DiscreteSlider_ds_tickMarkStep, 1);
+		tickMarkStep = 1 > step || (count - 1) % step != 0 ? 1 : step;
+
+		progressOffset = a.getInt(R.styleable.DiscreteSlider_ds_progressOffset, 0);
+		minProgress = a.getInt(R.styleable.DiscreteSlider_ds_progress,
+				a.getInt(R.styleable.DiscreteSlider_ds_minProgress, 0));
+		maxProgress = mode == DiscreteSlider.MODE_NORMAL ? -1 :
+				a.getInt(R.styleable.DiscreteSlider_ds_maxProgress, count - 1);
+
+		hasTickMarkPatterns = a.hasValue(R.styleable.DiscreteSlider_ds_tickMarkPatterns);
+		if (hasTickMarkPatterns) {
+			String patterns = a.getString(R.styleable.DiscreteSlider_ds_tickMarkPatterns);
+			if (!TextUtils.isEmpty(patterns)) {
+				tickMarkPattern = getTickMarkPattern(patterns,
+						a.getDimension(R.styleable.DiscreteSlider_ds_tickMarkDashLength,
+								Utils.convertDpToPixel(1, metrics)));
+			} else {
+				tickMarkPattern = null;
+			}
+		} else {
+			tickMarkPattern = null;
+		}
+
+		orientation = a.getInt(R.styleable.DiscreteSlider_ds_orientation,
+				DiscreteSlider.HORIZONTAL);
+		frameSync = a.getBoolean(R.styleable.DiscreteSlider_ds_frameSync, false);
+		fling = a.getBoolean(R.styleable.DiscreteSlider_ds_fling, false);
+
+		hapticMinInterval =
+				Math.max(a.getInt(R.styleable.DiscreteSlider_ds_hapticMinInterval, 0), 0);
+		hapticVelocityAware =
+				a.getBoolean(R.styleable.DiscreteSlider_ds_hapticVelocityAware, false);
+
+		int gravity = a.getInt(R.styleable.DiscreteSlider_ds_valueLabelGravity,
+				DiscreteSlider.TOP);
+		if (orientation == DiscreteSlider.HORIZONTAL &&
+				(gravity != DiscreteSlider.TOP && gravity != DiscreteSlider.BOTTOM)) {
+			gravity = DiscreteSlider.TOP;
+		} else if (orientation == DiscreteSlider.VERTICAL &&
+				(gravity != DiscreteSlider.RIGHT && gravity != DiscreteSlider.LEFT)) {
+			gravity = DiscreteSlider.RIGHT;
+		}
+		valueLabelGravity = gravity;
+	}
+
+	/**
+	 * Parses a {@code ds_tickMarkPatterns} value like {@code "dot,dash"}. Every distinct
+	 * value is parsed once, sliders inflated with it share the immutable result.
+	 */
+	@Nullable
+	static TickMarkPattern getTickMarkPattern(@NonNull String patterns, float dashLength) {
+		String key = dashLength + ":" + patterns;
+		if (TICK_MARK_PATTERNS.containsKey(key)) {
+			return TICK_MARK_PATTERNS.get(key);
+		}
+		TickMarkPattern pattern = TickMarkPattern.parse(patterns, dashLength);
+		TICK_MARK_PATTERNS.put(key, pattern);
+		return pattern;
+	}
+}
@@ -0,0 +1,172 @@
+package hearsilent.discreteslider;
+
+/**
+ * Counters of the work a {@link DiscreteSlider} did during one frame, reported through
+ * {@link DiscreteSlider.OnMetricsListener}. Phases may nest, e.g. a listener dispatched
+ * from a touch event also counts towards {@link #PHASE_TOUCH}. The slider reuses the
+ * instance, so copy the values you keep before the callback returns.
+ */
+public final class SliderMetrics {
+
+	/**
+	 * {@link DiscreteSlider#onDraw(android.graphics.Canvas)}.
+	 */
+	public static final int PHASE_DRAW = 0;
+	/**
+	 * Touch event handling, including the move gesture detector.
+	 */
+	public static final int PHASE_TOUCH = 1;
+	/**
+	 * Rebuilding the inactive track path.
+	 */
+	public static final int PHASE_TRACK_PATH = 2;
+	/**
+	 * Resolving and building the value label path.
+	 */
+	public static final int PHASE_VALUE_LABEL_PATH = 3;
+	/**
+	 * {@link DiscreteSlider.OnValueChangedListener} callbacks.
+	 */
+	public static final int PHASE_LISTENER = 4;
+
+	static final int PHASE_COUNT = 5;
+
+	private final long[] mTimes = new long[PHASE_COUNT];
+	private final int[] mCalls = new int[PHASE_COUNT];
+	private int mTickMarksRecorded;
+	private int mTickMarkLayerDraws;
+	private int mLabelCacheHits, mLabelCacheMisses;
+	private int mPathRebuilds;
+	private int mAnimatorStarts;
+	private long mFrameTime;
+
+	SliderMetrics() {
+	}
+
+	void addPhase(int phase, long nanos) {
+		mTimes[phase] += nanos;
+		mCalls[phase]++;
+	}
+
+	void addTickMarkRecorded() {
+		mTickMarksRecorded++;
+	}
+
+	void addTickMarkLayerDraw() {
+		mTickMarkLayerDraws++;
+	}
+
+	void addLabelCacheLookup(boolean hit) {
+		if (hit) {
+			mLabelCacheHits++;
+		} else {
+			mLabelCacheMisses++;
+		}
+	}
+
+	void addPathRebuild() {
+		mPathRebuilds++;
+	}
+
+	void addAnimatorStart() {
+		mAnimatorStarts++;
+	}
+
+	/**
+	 * Adds the counters of {@code metrics} to this one and takes over its frame time.
+	 */
+	void add(SliderMetrics metrics) {
+		for (int i = 0; i < PHASE_COUNT; i++) {
+			mTimes[i] += metrics.mTimes[i];
+			mCalls[i] += metrics.mCalls[i];
+		}
+		mTickMarksRecorded += metrics.mTickMarksRecorded;
+		mTickMarkLayerDraws += metrics.mTickMarkLayerDraws;
+		mLabelCacheHits += metrics.mLabelCacheHits;
+		mLabelCacheMisses += metrics.mLabelCacheMisses;
+		mPathRebuilds += metrics.mPathRebuilds;
+		mAnimatorStarts += metrics.mAnimatorStarts;
+		mFrameTime = metrics.mFrameTime;
+	}
+
+	void setFrameTime(long frameTime) {
+		mFrameTime = frameTime;
+	}
+
+	void reset() {
+		for (int i = 0; i < PHASE_COUNT; i++) {
+			mTimes[i] = 0;
+			mCalls[i] = 0;
+		}
+		mTickMarksRecorded = 0;
+		mTickMarkLayerDraws = 0;
+		mLabelCacheHits = 0;
+		mLabelCacheMisses = 0;
+		mPathRebuilds = 0;
+		mAnimatorStarts = 0;
+		mFrameTime = 0;
+	}
+
+	/**
+	 * @param phase One of the {@code PHASE_} constants
+	 * @return The time spent in {@code phase} in nanoseconds
+	 */
+	public long getTime(int phase) {
+		return mTimes[phase];
+	}
+
+	/**
+	 * @param phase One of the {@code PHASE_} constants
+	 * @return How often {@code phase} ran
+	 */
+	public int getCalls(int phase) {
+		return mCalls[phase];
+	}
+
+	/**
+	 * @return The tick marks drawn into the tick mark layer, {@code 0} while the cached layer
+	 * is reused
+	 */
+	public int getTickMarksRecorded() {
+		return mTickMarksRecorded;
+	}
+
+	/**
+	 * @return How often the tick mark layer was drawn, once per color segment
+	 */
+	public int getTickMarkLayerDraws() {
+		return mTickMarkLayerDraws;
+	}
+
+	public int getLabelCacheHits() {
+		return mLabelCacheHits;
+	}
+
+	/**
+	 * @return The value labels which had to be formatted and measured
+	 */
+	public int getLabelCacheMisses() {
+		return mLabelCacheMisses;
+	}
+
+	/**
+	 * @return How often the track or the value label path was built
+	 */
+	public int getPathRebuilds() {
+		return mPathRebuilds;
+	}
+
+	/**
+	 * @return How often the offset or the value label animator was started
+	 */
+	public int getAnimatorStarts() {
+		return mAnimatorStarts;
+	}
+
+	/**
+	 * @return The {@link android.os.SystemClock#uptimeMillis()} the frame was drawn at
+	 */
+	public long getFrameTime() {
+		return mFrameTime;
+	}
+}
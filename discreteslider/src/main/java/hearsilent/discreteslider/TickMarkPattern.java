@@ -0,0 +1,173 @@
+package hearsilent.discreteslider;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * An immutable sequence of tick mark shapes which repeats along the track, tick {@code i} is
+ * drawn with element {@code i % size()}. Elements are stored as a kind and a dash length in
+ * primitive arrays.
+ */
+public final class TickMarkPattern {
+
+	public static final byte DOT = 0;
+	public static final byte DASH = 1;
+
+	final byte[] kinds;
+	final float[] lengths;
+
+	/**
+	 * @param kinds   {@link #DOT} or {@link #DASH} for every element
+	 * @param lengths The dash lengths in pixels, ignored for dots
+	 */
+	public TickMarkPattern(@NonNull byte[] kinds, @NonNull float[] lengths) {
+		if (kinds.length == 0 || kinds.length != lengths.length) {
+			throw new IllegalArgumentException(
+					"Kinds and lengths must have the same, positive number of elements.");
+		}
+		this.kinds = kinds.clone();
+		this.lengths = new float[lengths.length];
+		for (int i = 0; i < kinds.length; i++) {
+			if (kinds[i] != DOT && kinds[i] != DASH) {
+				throw new IllegalArgumentException("Pattern only accepted dot or dash.");
+			}
+			this.lengths[i] = kinds[i] == DASH ? Math.max(lengths[i], 0) : 0;
+		}
+	}
+
+	/**
+	 * Converts a list of {@link Dot} and {@link Dash} instances.
+	 *
+	 * @return The pattern, or {@code null} if the list is empty
+	 */
+	@Nullable
+	public static TickMarkPattern fromList(@NonNull List<?> patterns) {
+		if (patterns.isEmpty()) {
+			return null;
+		}
+		byte[] kinds = new byte[patterns.size()];
+		float[] lengths = new float[patterns.size()];
+		for (int i = 0; i < kinds.length; i++) {
+			Object pattern = patterns.get(i);
+			if (pattern instanceof Dot) {
+				kinds[i] = DOT;
+			} else if (pattern instanceof Dash) {
+				kinds[i] = DASH;
+				lengths[i] = ((Dash) pattern).length;
+			} else {
+				throw new IllegalArgumentException("Pattern only accepted dot or dash.");
+			}
+		}
+		return new TickMarkPattern(kinds, lengths);
+	}
+
+	/**
+	 * Parses a comma separated list of {@code dot} and {@code dash}, ignoring case and any
+	 * other element.
+	 *
+	 * @return The pattern, or {@code null} if the list has neither dots nor dashes
+	 */
+	@Nullable
+	public static TickMarkPattern parse(@NonNull String patterns, float dashLength) {
+		byte[] kinds = new byte[patterns.length() / 3];
+		int size = 0;
+		int start = 0;
+		while (start <= patterns.length()) {
+			int end = patterns.indexOf(',', start);
+			if (end == -1) {
+				end = patterns.length();
+			}
+			int length = end - start;
+			if (length == 3 && patterns.regionMatches(true, start, "dot", 0, 3)) {
+				kinds[size++] = DOT;
+			} else if (length == 4 && patterns.regionMatches(true, start, "dash", 0, 4)) {
+				kinds[size++] = DASH;
+			}
+			start = end + 1;
+		}
+		if (size == 0) {
+			return null;
+		}
+		float[] lengths = new float[size];
+		Arrays.fill(lengths, dashLength);
+		return new TickMarkPattern(Arrays.copyOf(kinds, size), lengths);
+	}
+
+	public int size() {
+		return kinds.length;
+	}
+
+	public byte getKind(int index) {
+		return kinds[index];
+	}
+
+	public float getLength(int index) {
+		return lengths[index];
+	}
+
+	/**
+	 * The pattern as seen by every {@code step}-th tick, element {@code k} of the result is
+	 * the shape of tick {@code k * step}. It repeats after {@code size / gcd(size, step)}
+	 * elements.
+	 */
+	@NonNull
+	public TickMarkPattern forStep(int step) {
+		if (step < 1) {
+			throw new IllegalArgumentException("Step must be a positive number.");
+		}
+		int period = kinds.length / gcd(kinds.length, step);
+		if (period == kinds.length && step % kinds.length == 1 % kinds.length) {
+			return this;
+		}
+		byte[] stepKinds = new byte[period];
+		float[] stepLengths = new float[period];
+		for (int k = 0; k < period; k++) {
+			int i = (int) ((long) k * step % kinds.length);
+			stepKinds[k] = kinds[i];
+			stepLengths[k] = lengths[i];
+		}
+		return new TickMarkPattern(stepKinds, stepLengths);
+	}
+
+	/**
+	 * @return New {@link Dot} and {@link Dash} instances for the elements
+	 */
+	@NonNull
+	public List<Object> toList() {
+		List<Object> patterns = new ArrayList<>(kinds.length);
+		for (int i = 0; i < kinds.length; i++) {
+			patterns.add(kinds[i] == DOT ? new Dot() : new Dash(lengths[i]));
+		}
+		return patterns;
+	}
+
+	private static int gcd(int a, int b) {
+		while (b != 0) {
+			int t = a % b;
+			a = b;
+			b = t;
+		}
+		return a;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof TickMarkPattern)) {
+			return false;
+		}
+		TickMarkPattern pattern = (TickMarkPattern) o;
+		return Arrays.equals(kinds, pattern.kinds) && Arrays.equals(lengths, pattern.lengths);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * Arrays.hashCode(kinds) + Arrays.hashCode(lengths);
+	}
+}
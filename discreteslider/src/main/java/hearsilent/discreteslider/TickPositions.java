@@ -0,0 +1,98 @@
+package hearsilent.discreteslider;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Maps tick indexes to positions along the track. The slider evaluates a mapping once per
+ * tick count into a table of fractions of the track length, the first tick at {@code 0}
+ * and the last one at {@code 1}, and snaps with a binary search over that table.
+ * {@link #LINEAR} keeps evenly spaced ticks without a table.
+ */
+public abstract class TickPositions {
+
+	public static final TickPositions LINEAR = new TickPositions() {
+
+		@Override
+		public double getPosition(int index, int count) {
+			return index;
+		}
+	};
+
+	/**
+	 * Ticks spaced by the logarithm of their index, wide at the start and dense at the end.
+	 */
+	@NonNull
+	public static TickPositions logarithmic() {
+		return new TickPositions() {
+
+			@Override
+			public double getPosition(int index, int count) {
+				return Math.log1p(index);
+			}
+		};
+	}
+
+	/**
+	 * Ticks placed in proportion to {@code positions}, e.g. the prices {@code 0, 10, 20, 50,
+	 * 100} put the third tick at a fifth of the track. The slider count must match the
+	 * number of positions.
+	 *
+	 * @param positions Strictly increasing positions, one per tick
+	 */
+	@NonNull
+	public static TickPositions of(@NonNull float... positions) {
+		if (positions.length < 2) {
+			throw new IllegalArgumentException("Positions must have at least two elements.");
+		}
+		for (int i = 1; i < positions.length; i++) {
+			if (!(positions[i] > positions[i - 1])) {
+				throw new IllegalArgumentException("Positions must be strictly increasing.");
+			}
+		}
+		final float[] values = positions.clone();
+		return new TickPositions() {
+
+			@Override
+			public double getPosition(int index, int count) {
+				if (count != values.length) {
+					throw new IllegalArgumentException(
+							"Count must be " + values.length + " for these positions.");
+				}
+				return values[index];
+			}
+		};
+	}
+
+	/**
+	 * Returns the position of a tick in any unit, the slider scales the positions so that
+	 * the first and the last tick lie on the ends of the track. Positions must be strictly
+	 * increasing with the index.
+	 *
+	 * @param index The tick index
+	 * @param count The tick count
+	 */
+	public abstract double getPosition(int index, int count);
+
+	/**
+	 * @return The positions of {@code count} ticks as fractions of the track length, or
+	 * {@code null} for {@link #LINEAR}
+	 */
+	float[] getFractions(int count) {
+		if (this == LINEAR) {
+			return null;
+		}
+		double first = getPosition(0, count), last = getPosition(count - 1, count);
+		float[] fractions = new float[count];
+		double previous = Double.NEGATIVE_INFINITY;
+		for (int i = 0; i < count; i++) {
+			double position = getPosition(i, count);
+			if (!(position > previous)) {
+				throw new IllegalArgumentException("Positions must be strictly increasing.");
+			}
+			previous = position;
+			fractions[i] = (float) ((position - first) / (last - first));
+		}
+		fractions[count - 1] = 1;
+		return fractions;
+	}
+}
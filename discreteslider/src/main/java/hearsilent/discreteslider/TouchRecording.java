@@ -0,0 +1,199 @@
+package hearsilent.discreteslider;
+
+import android.view.InputDevice;
+import android.view.MotionEvent;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import androidx.annotation.NonNull;
+
+/**
+ * A compact binary recording of touch events, e.g. the ones a slider received through
+ * {@link DiscreteSlider#setTouchRecording(TouchRecording)}. Every event keeps its action,
+ * pointer ids and all batched samples with their time, position and pressure, so that a
+ * replay reaches the slider and its gesture detector exactly like the original stream.
+ * Times are stored relative to the first event and restored relative to any start time.
+ */
+public final class TouchRecording {
+
+	// "DSTR", followed by the version and the event count.
+	private static final int MAGIC = 0x44535452;
+	private static final int VERSION = 1;
+
+	private final ByteArrayOutputStream mBytes = new ByteArrayOutputStream();
+	private final DataOutputStream mOut = new DataOutputStream(mBytes);
+	private int mSize;
+	private long mStartTime = -1;
+
+	/**
+	 * Appends a copy of {@code event}, the event itself is not kept.
+	 */
+	public void add(@NonNull MotionEvent event) {
+		if (mStartTime == -1) {
+			mStartTime = event.getDownTime();
+		}
+		int pointerCount = event.getPointerCount();
+		int historySize = event.getHistorySize();
+		try {
+			mOut.writeInt(event.getAction());
+			mOut.writeInt((int) (event.getDownTime() - mStartTime));
+			mOut.writeByte(pointerCount);
+			for (int i = 0; i < pointerCount; i++) {
+				mOut.writeByte(event.getPointerId(i));
+			}
+			mOut.writeShort(historySize);
+			for (int h = 0; h < historySize; h++) {
+				mOut.writeInt((int) (event.getHistoricalEventTime(h) - mStartTime));
+				for (int i = 0; i < pointerCount; i++) {
+					mOut.writeFloat(event.getHistoricalX(i, h));
+					mOut.writeFloat(event.getHistoricalY(i, h));
+					mOut.writeFloat(event.getHistoricalPressure(i, h));
+				}
+			}
+			mOut.writeInt((int) (event.getEventTime() - mStartTime));
+			for (int i = 0; i < pointerCount; i++) {
+				mOut.writeFloat(event.getX(i));
+				mOut.writeFloat(event.getY(i));
+				mOut.writeFloat(event.getPressure(i));
+			}
+		} catch (IOException e) {
+			// Writing to memory does not fail.
+			throw new IllegalStateException(e);
+		}
+		mSize++;
+	}
+
+	/**
+	 * @return The number of recorded events
+	 */
+	public int size() {
+		return mSize;
+	}
+
+	public void clear() {
+		mBytes.reset();
+		mSize = 0;
+		mStartTime = -1;
+	}
+
+	public void writeTo(@NonNull OutputStream out) throws IOException {
+		DataOutputStream data = new DataOutputStream(out);
+		data.writeInt(MAGIC);
+		data.writeByte(VERSION);
+		data.writeInt(mSize);
+		mBytes.writeTo(data);
+		data.flush();
+	}
+
+	/**
+	 * Reads a recording written by {@link #writeTo(OutputStream)}.
+	 *
+	 * @throws IOException If the stream is not a complete recording
+	 */
+	@NonNull
+	public static TouchRecording readFrom(@NonNull InputStream in) throws IOException {
+		DataInputStream data = new DataInputStream(in);
+		if (data.readInt() != MAGIC) {
+			throw new IOException("Not a touch recording.");
+		}
+		int version = data.readUnsignedByte();
+		if (version != VERSION) {
+			throw new IOException("Unsupported touch recording version " + version + ".");
+		}
+		int size = data.readInt();
+		if (size < 0) {
+			throw new IOException("Invalid event count " + size + ".");
+		}
+		TouchRecording recording = new TouchRecording();
+		byte[] buffer = new byte[4096];
+		for (int read; (read = data.read(buffer)) != -1; ) {
+			recording.mBytes.write(buffer, 0, read);
+		}
+		recording.mSize = size;
+		// Fail now rather than halfway through a replay.
+		recording.readEvents(0, null);
+		return recording;
+	}
+
+	/**
+	 * Creates the recorded events, the caller owns and should recycle them.
+	 *
+	 * @param startTime The {@link android.os.SystemClock#uptimeMillis()} the first event is
+	 *                  moved to
+	 */
+	@NonNull
+	public List<MotionEvent> obtainEvents(long startTime) {
+		List<MotionEvent> events = new ArrayList<>(mSize);
+		try {
+			readEvents(startTime, events);
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+		return events;
+	}
+
+	/**
+	 * Parses the recorded events into {@code out}, or only validates them if it is
+	 * {@code null}.
+	 */
+	private void readEvents(long startTime, List<MotionEvent> out) throws IOException {
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(mBytes.toByteArray()));
+		for (int e = 0; e < mSize; e++) {
+			int action = in.readInt();
+			long downTime = startTime + in.readInt();
+			int pointerCount = in.readUnsignedByte();
+			if (pointerCount < 1) {
+				throw new IOException("Event " + e + " has no pointers.");
+			}
+			MotionEvent.PointerProperties[] properties =
+					new MotionEvent.PointerProperties[pointerCount];
+			MotionEvent.PointerCoords[] coords = new MotionEvent.PointerCoords[pointerCount];
+			for (int i = 0; i < pointerCount; i++) {
+				int id = in.readUnsignedByte();
+				if (out != null) {
+					properties[i] = new MotionEvent.PointerProperties();
+					properties[i].id = id;
+					properties[i].toolType = MotionEvent.TOOL_TYPE_FINGER;
+					coords[i] = new MotionEvent.PointerCoords();
+				}
+			}
+			MotionEvent event = null;
+			int samples = in.readUnsignedShort() + 1;
+			for (int h = 0; h < samples; h++) {
+				long time = startTime + in.readInt();
+				for (int i = 0; i < pointerCount; i++) {
+					float x = in.readFloat(), y = in.readFloat(), pressure = in.readFloat();
+					if (out != null) {
+						coords[i].x = x;
+						coords[i].y = y;
+						coords[i].pressure = pressure;
+						coords[i].size = 1;
+					}
+				}
+				if (out == null) {
+					continue;
+				}
+				if (event == null) {
+					event = MotionEvent.obtain(downTime, time, action, pointerCount, properties,
+							coords, 0, 0, 1, 1, 0, 0, InputDevice.SOURCE_TOUCHSCREEN, 0);
+				} else {
+					event.addBatch(time, coords, 0);
+				}
+			}
+			if (out != null) {
+				out.add(event);
+			}
+		}
+		if (in.available() > 0) {
+			throw new IOException("Unexpected data after " + mSize + " events.");
+		}
+	}
+}
@@ -28,8 +28,11 @@ public abstract class BaseGestureDetector {
 	protected final Context mContext;
 	protected boolean mGestureInProgress;
 
-	protected MotionEvent mPrevEvent;
-	protected MotionEvent mCurrEvent;
+	// The previous and current events are kept as primitives instead of
+	// MotionEvent copies, so that no event has to be obtained per move.
+	protected boolean mHasPrevEvent;
+	protected long mPrevEventTime;
+	protected long mCurrEventTime;
 
 	protected float mCurrPressure;
 	protected float mPrevPressure;
@@ -88,32 +91,29 @@ public abstract class BaseGestureDetector {
 	protected abstract void handleInProgressEvent(int actionCode, MotionEvent event);
 
 	protected void updateStateByEvent(MotionEvent curr) {
-		final MotionEvent prev = mPrevEvent;
-
-		// Reset mCurrEvent
-		if (mCurrEvent != null) {
-			mCurrEvent.recycle();
-			mCurrEvent = null;
-		}
-		mCurrEvent = MotionEvent.obtain(curr);
+		mCurrEventTime = curr.getEventTime();
 
 		// Delta time
-		mTimeDelta = curr.getEventTime() - prev.getEventTime();
+		mTimeDelta = mCurrEventTime - mPrevEventTime;
 
 		// Pressure
 		mCurrPressure = curr.getPressure(curr.getActionIndex());
+	}
+
+	/**
+	 * Stores the state of {@code prev} which is needed by the next
+	 * {@link #updateStateByEvent(MotionEvent)} call.
+	 *
+	 * @param prev The event which becomes the previous event
+	 */
+	protected void updatePrevStateByEvent(MotionEvent prev) {
+		mHasPrevEvent = true;
+		mPrevEventTime = prev.getEventTime();
 		mPrevPressure = prev.getPressure(prev.getActionIndex());
 	}
 
 	protected void resetState() {
-		if (mPrevEvent != null) {
-			mPrevEvent.recycle();
-			mPrevEvent = null;
-		}
-		if (mCurrEvent != null) {
-			mCurrEvent.recycle();
-			mCurrEvent = null;
-		}
+		mHasPrevEvent = false;
 		mGestureInProgress = false;
 	}
 
@@ -143,7 +143,7 @@ public abstract class BaseGestureDetector {
 	 * @return Current GestureDetector event time in milliseconds.
 	 */
 	public long getEventTime() {
-		return mCurrEvent.getEventTime();
+		return mCurrEventTime;
 	}
 
 }
\ No newline at end of file
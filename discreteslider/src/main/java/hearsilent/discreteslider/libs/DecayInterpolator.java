@@ -0,0 +1,32 @@
+package hearsilent.discreteslider.libs;
+
+import android.animation.TimeInterpolator;
+
+/**
+ * Exponential decay normalised to end exactly at 1, the way a flung object slows down under
+ * friction. With a rate of {@code k} the curve starts with a slope of
+ * {@code k / (1 - e^-k)}, so an animation of distance {@code d} over {@code k * d / v}
+ * seconds starts at velocity {@code v}.
+ */
+public class DecayInterpolator implements TimeInterpolator {
+
+	private final float mRate;
+	private final float mScale;
+
+	public DecayInterpolator(float rate) {
+		if (rate <= 0) {
+			throw new IllegalArgumentException("Rate must be a positive number.");
+		}
+		mRate = rate;
+		mScale = 1f / (1f - (float) Math.exp(-rate));
+	}
+
+	public float getRate() {
+		return mRate;
+	}
+
+	@Override
+	public float getInterpolation(float input) {
+		return (1f - (float) Math.exp(-mRate * input)) * mScale;
+	}
+}
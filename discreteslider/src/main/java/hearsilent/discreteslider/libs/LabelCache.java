@@ -0,0 +1,106 @@
+package hearsilent.discreteslider.libs;
+
+import androidx.annotation.Nullable;
+
+/**
+ * A small least recently used cache of formatted labels and their measured text bounds,
+ * keyed by the value they were formatted from. Entries live in parallel arrays, so lookups
+ * and insertions do not allocate.
+ */
+public class LabelCache {
+
+	private final int[] mKeys;
+	private final String[] mLabels;
+	private final int[] mBounds;
+	private final long[] mLastUsed;
+	private int mSize;
+	private long mClock;
+
+	public LabelCache(int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("Capacity must be a positive number.");
+		}
+		mKeys = new int[capacity];
+		mLabels = new String[capacity];
+		mBounds = new int[capacity * 4];
+		mLastUsed = new long[capacity];
+	}
+
+	/**
+	 * Returns the entry index of {@code key} and marks it as recently used.
+	 *
+	 * @param key The value the label was formatted from
+	 * @return The entry index, or {@code -1} if the key is not cached
+	 */
+	public int indexOf(int key) {
+		for (int i = 0; i < mSize; i++) {
+			if (mKeys[i] == key) {
+				mLastUsed[i] = ++mClock;
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Caches a label and its text bounds, evicting the least recently used entry when the
+	 * cache is full.
+	 *
+	 * @return The entry index
+	 */
+	public int put(int key, @Nullable String label, int left, int top, int right, int bottom) {
+		int index = indexOf(key);
+		if (index == -1) {
+			if (mSize < mKeys.length) {
+				index = mSize++;
+			} else {
+				index = 0;
+				for (int i = 1; i < mSize; i++) {
+					if (mLastUsed[i] < mLastUsed[index]) {
+						index = i;
+					}
+				}
+			}
+		}
+		mKeys[index] = key;
+		mLabels[index] = label;
+		mBounds[index * 4] = left;
+		mBounds[index * 4 + 1] = top;
+		mBounds[index * 4 + 2] = right;
+		mBounds[index * 4 + 3] = bottom;
+		mLastUsed[index] = ++mClock;
+		return index;
+	}
+
+	@Nullable
+	public String getLabel(int index) {
+		return mLabels[index];
+	}
+
+	public int getLeft(int index) {
+		return mBounds[index * 4];
+	}
+
+	public int getTop(int index) {
+		return mBounds[index * 4 + 1];
+	}
+
+	public int getRight(int index) {
+		return mBounds[index * 4 + 2];
+	}
+
+	public int getBottom(int index) {
+		return mBounds[index * 4 + 3];
+	}
+
+	public int size() {
+		return mSize;
+	}
+
+	public void clear() {
+		for (int i = 0; i < mSize; i++) {
+			mLabels[i] = null;
+		}
+		mSize = 0;
+	}
+}
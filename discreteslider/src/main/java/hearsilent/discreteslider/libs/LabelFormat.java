@@ -0,0 +1,56 @@
+package hearsilent.discreteslider.libs;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * The labels of the default value label formatter, kept free of framework classes so that
+ * the benchmarks measure the code the slider runs. Labels are never in exponent notation.
+ */
+public class LabelFormat {
+
+	private LabelFormat() {
+	}
+
+	public static String format(int value) {
+		return Integer.toString(value);
+	}
+
+	/**
+	 * @return Whole values without a fraction, e.g. {@code "2"} instead of {@code "2.0"}, others
+	 * with the decimals of their shortest representation
+	 */
+	public static String format(float value) {
+		if (isWhole(value)) {
+			return Long.toString((long) value);
+		} else if (Float.isNaN(value) || Float.isInfinite(value)) {
+			return Float.toString(value);
+		}
+		return toPlainString(new BigDecimal(Float.toString(value)));
+	}
+
+	/**
+	 * @param decimals The decimal places of the precision, e.g. {@code 4} for {@code 0.0001}
+	 * @return {@code value} rounded to at most {@code decimals} decimal places, without
+	 * trailing zeros
+	 */
+	public static String format(float value, int decimals) {
+		if (isWhole(value)) {
+			return Long.toString((long) value);
+		} else if (Float.isNaN(value) || Float.isInfinite(value)) {
+			return Float.toString(value);
+		}
+		return toPlainString(new BigDecimal(Float.toString(value))
+				.setScale(Math.max(decimals, 0), RoundingMode.HALF_UP));
+	}
+
+	private static boolean isWhole(float value) {
+		// Long.MAX_VALUE is 2^63 as a float, the cast would saturate at that and above.
+		return value >= Long.MIN_VALUE && value < Long.MAX_VALUE && value == (long) value;
+	}
+
+	private static String toPlainString(BigDecimal value) {
+		// Older runtimes keep the scale when stripping the zeros of zero.
+		return value.signum() == 0 ? "0" : value.stripTrailingZeros().toPlainString();
+	}
+}
@@ -0,0 +1,90 @@
+package hearsilent.discreteslider.libs;
+
+import android.graphics.Bitmap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Reference counted bitmaps keyed by the parameters they were drawn from, so that views
+ * which would draw identical layers, like the rows of a list, hold a single bitmap. Shared
+ * bitmaps must not be drawn into again, a view whose parameters change releases its bitmap
+ * and acquires or records another one. Bitmaps are never recycled, a display list recorded
+ * before the last release may still draw one, so the garbage collector reclaims them. Only
+ * use it from the main thread.
+ */
+public class LayerCache {
+
+	private final ArrayList<float[]> mKeys = new ArrayList<>();
+	private final ArrayList<Bitmap> mBitmaps = new ArrayList<>();
+	private final ArrayList<int[]> mRefs = new ArrayList<>();
+
+	/**
+	 * Returns the bitmap recorded for {@code key} and takes a reference to it.
+	 *
+	 * @return The shared bitmap, or {@code null} if there is none and the caller has to
+	 * record it and {@link #put(float[], Bitmap)} it
+	 */
+	@Nullable
+	public Bitmap acquire(@NonNull float[] key) {
+		for (int i = 0; i < mKeys.size(); i++) {
+			if (Arrays.equals(mKeys.get(i), key)) {
+				mRefs.get(i)[0]++;
+				return mBitmaps.get(i);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Shares a freshly recorded bitmap, the caller holds the first reference.
+	 */
+	public void put(@NonNull float[] key, @NonNull Bitmap bitmap) {
+		mKeys.add(key);
+		mBitmaps.add(bitmap);
+		mRefs.add(new int[]{1});
+	}
+
+	/**
+	 * Drops a reference taken by {@link #acquire(float[])} or {@link #put(float[], Bitmap)},
+	 * the bitmap leaves the cache when the last one is gone.
+	 */
+	public void release(@NonNull Bitmap bitmap) {
+		for (int i = 0; i < mBitmaps.size(); i++) {
+			if (mBitmaps.get(i) == bitmap) {
+				if (--mRefs.get(i)[0] == 0) {
+					mKeys.remove(i);
+					mBitmaps.remove(i);
+					mRefs.remove(i);
+				}
+				return;
+			}
+		}
+	}
+
+	/**
+	 * @return How many views hold {@code bitmap}, or {@code 0} if it is not in the cache
+	 */
+	public int getRefCount(@NonNull Bitmap bitmap) {
+		int i = mBitmaps.indexOf(bitmap);
+		return i == -1 ? 0 : mRefs.get(i)[0];
+	}
+
+	/**
+	 * Files a bitmap which its only holder has drawn again under the parameters it was drawn
+	 * from now.
+	 */
+	public void setKey(@NonNull Bitmap bitmap, @NonNull float[] key) {
+		int i = mBitmaps.indexOf(bitmap);
+		if (i != -1) {
+			mKeys.set(i, key);
+		}
+	}
+
+	public int size() {
+		return mBitmaps.size();
+	}
+}
@@ -26,6 +26,16 @@ import android.view.MotionEvent;
  */
 public class MoveGestureDetector extends BaseGestureDetector {
 
+	/**
+	 * How many focal samples are kept, enough for the velocity window on a 240 Hz digitizer.
+	 */
+	private static final int TRAJECTORY_CAPACITY = 32;
+
+	/**
+	 * Samples older than this, relative to the newest one, are not used for the velocity.
+	 */
+	private static final long VELOCITY_WINDOW = 100;
+
 	/**
 	 * Listener which must be implemented which is used by MoveGestureDetector
 	 * to perform callbacks to any implementing class which is registered to a
@@ -62,27 +72,58 @@ public class MoveGestureDetector extends BaseGestureDetector {
 		}
 	}
 
-	private static final PointF FOCUS_DELTA_ZERO = new PointF();
-
 	private final OnMoveGestureListener mListener;
 
-	private PointF mCurrFocusInternal;
-	private PointF mPrevFocusInternal;
+	private PointF mCurrFocusInternal = new PointF();
+	private PointF mPrevFocusInternal = new PointF();
+	private int mPrevPointerCount;
 	private PointF mFocusExternal = new PointF();
 	private PointF mFocusDeltaExternal = new PointF();
+	private final Trajectory mTrajectory = new Trajectory(TRAJECTORY_CAPACITY);
 
 	public MoveGestureDetector(Context context, OnMoveGestureListener listener) {
 		super(context);
 		mListener = listener;
 	}
 
+	@Override
+	public boolean onTouchEvent(MotionEvent event) {
+		boolean traced = SliderTrace.begin(SliderTrace.MOVE_GESTURE);
+		try {
+			switch (event.getAction() & MotionEvent.ACTION_MASK) {
+				case MotionEvent.ACTION_DOWN:
+				case MotionEvent.ACTION_POINTER_DOWN:
+					// The focal point jumps when a finger is added or removed, start over so
+					// that the jump does not show up as velocity.
+					mTrajectory.clear();
+					addFocalSamples(event, -1);
+					break;
+
+				case MotionEvent.ACTION_POINTER_UP:
+					// The lifting finger is still in the event but not in the next move, so
+					// the restarted trajectory leaves it out.
+					mTrajectory.clear();
+					addFocalSamples(event, event.getActionIndex());
+					break;
+
+				case MotionEvent.ACTION_MOVE:
+					addFocalSamples(event, -1);
+					break;
+			}
+			// Calls the listener, which may run user code.
+			return super.onTouchEvent(event);
+		} finally {
+			SliderTrace.end(traced);
+		}
+	}
+
 	@Override
 	protected void handleStartProgressEvent(int actionCode, MotionEvent event) {
 		switch (actionCode) {
 			case MotionEvent.ACTION_DOWN:
 				resetState(); // In case we missed an UP/CANCEL event
 
-				mPrevEvent = MotionEvent.obtain(event);
+				updatePrevStateByEvent(event);
 				mTimeDelta = 0;
 
 				updateStateByEvent(event);
@@ -105,9 +146,10 @@ public class MoveGestureDetector extends BaseGestureDetector {
 
 			case MotionEvent.ACTION_MOVE:
 				// If the gesture started before this detector was attached (somehow),
-				// mPrevEvent will be null at this point and BaseGestureDetector's
-				// updateStateByEvent() will crash. The following check will prevent this.
-				if (mPrevEvent == null) {
+				// there is no previous event at this point and BaseGestureDetector's
+				// updateStateByEvent() would use a stale state. The following check will
+				// prevent this.
+				if (!mHasPrevEvent) {
 					return;
 				}
 				updateStateByEvent(event);
@@ -118,8 +160,7 @@ public class MoveGestureDetector extends BaseGestureDetector {
 				if (mCurrPressure / mPrevPressure > PRESSURE_THRESHOLD) {
 					final boolean updatePrevious = mListener.onMove(this);
 					if (updatePrevious) {
-						mPrevEvent.recycle();
-						mPrevEvent = MotionEvent.obtain(event);
+						updatePrevStateByEvent(event);
 					}
 				}
 				break;
@@ -129,18 +170,19 @@ public class MoveGestureDetector extends BaseGestureDetector {
 	protected void updateStateByEvent(MotionEvent curr) {
 		super.updateStateByEvent(curr);
 
-		final MotionEvent prev = mPrevEvent;
-
 		// Focus intenal
-		mCurrFocusInternal = determineFocalPoint(curr);
-		mPrevFocusInternal = determineFocalPoint(prev);
+		determineFocalPoint(curr, mCurrFocusInternal);
 
 		// Focus external
 		// - Prevent skipping of focus delta when a finger is added or removed
-		boolean mSkipNextMoveEvent = prev.getPointerCount() != curr.getPointerCount();
-		mFocusDeltaExternal = mSkipNextMoveEvent ? FOCUS_DELTA_ZERO :
-				new PointF(mCurrFocusInternal.x - mPrevFocusInternal.x,
-						mCurrFocusInternal.y - mPrevFocusInternal.y);
+		boolean mSkipNextMoveEvent = mPrevPointerCount != curr.getPointerCount();
+		if (mSkipNextMoveEvent) {
+			mFocusDeltaExternal.x = 0;
+			mFocusDeltaExternal.y = 0;
+		} else {
+			mFocusDeltaExternal.x = mCurrFocusInternal.x - mPrevFocusInternal.x;
+			mFocusDeltaExternal.y = mCurrFocusInternal.y - mPrevFocusInternal.y;
+		}
 
 		// - Don't directly use mFocusInternal (or skipping will occur). Add
 		// 	 unskipped delta values to mFocusExternal instead.
@@ -148,14 +190,21 @@ public class MoveGestureDetector extends BaseGestureDetector {
 		mFocusExternal.y += mFocusDeltaExternal.y;
 	}
 
+	@Override
+	protected void updatePrevStateByEvent(MotionEvent prev) {
+		super.updatePrevStateByEvent(prev);
+		determineFocalPoint(prev, mPrevFocusInternal);
+		mPrevPointerCount = prev.getPointerCount();
+	}
+
 	/**
 	 * Determine (multi)finger focal point (a.k.a. center point between all
 	 * fingers)
 	 *
-	 * @param e MotionEvent
-	 * @return PointF focal point
+	 * @param e   MotionEvent
+	 * @param out PointF which receives the focal point
 	 */
-	private PointF determineFocalPoint(MotionEvent e) {
+	private static void determineFocalPoint(MotionEvent e, PointF out) {
 		// Number of fingers on screen
 		final int pCount = e.getPointerCount();
 		float x = 0f;
@@ -166,7 +215,45 @@ public class MoveGestureDetector extends BaseGestureDetector {
 			y += e.getY(i);
 		}
 
-		return new PointF(x / pCount, y / pCount);
+		out.x = x / pCount;
+		out.y = y / pCount;
+	}
+
+	/**
+	 * Records the focal point of every batched historical sample of {@code e} followed by
+	 * the current one, so that the trajectory keeps the full input rate even when several
+	 * samples arrive in one frame.
+	 *
+	 * @param skipIndex The index of a pointer to leave out, or {@code -1} to use all
+	 */
+	private void addFocalSamples(MotionEvent e, int skipIndex) {
+		final int pCount = e.getPointerCount();
+		final int div = skipIndex == -1 ? pCount : pCount - 1;
+		if (div == 0) {
+			return;
+		}
+		final int hCount = e.getHistorySize();
+		for (int h = 0; h < hCount; h++) {
+			float x = 0f;
+			float y = 0f;
+			for (int i = 0; i < pCount; i++) {
+				if (i != skipIndex) {
+					x += e.getHistoricalX(i, h);
+					y += e.getHistoricalY(i, h);
+				}
+			}
+			mTrajectory.add(e.getHistoricalEventTime(h), x / div, y / div);
+		}
+
+		float x = 0f;
+		float y = 0f;
+		for (int i = 0; i < pCount; i++) {
+			if (i != skipIndex) {
+				x += e.getX(i);
+				y += e.getY(i);
+			}
+		}
+		mTrajectory.add(e.getEventTime(), x / div, y / div);
 	}
 
 	public float getFocusX() {
@@ -181,4 +268,26 @@ public class MoveGestureDetector extends BaseGestureDetector {
 		return mFocusDeltaExternal;
 	}
 
+	/**
+	 * Returns the focal samples of the current gesture, including the batched historical
+	 * ones, oldest first. The trajectory is reused, so read it before the next event.
+	 */
+	public Trajectory getTrajectory() {
+		return mTrajectory;
+	}
+
+	/**
+	 * @return The focal x velocity in pixels per second
+	 */
+	public float getVelocityX() {
+		return mTrajectory.getVelocityX(VELOCITY_WINDOW);
+	}
+
+	/**
+	 * @return The focal y velocity in pixels per second
+	 */
+	public float getVelocityY() {
+		return mTrajectory.getVelocityY(VELOCITY_WINDOW);
+	}
+
 }
\ No newline at end of file
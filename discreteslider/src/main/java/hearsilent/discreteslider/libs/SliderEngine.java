@@ -0,0 +1,478 @@
+package hearsilent.discreteslider.libs;
+
+/**
+ * The framework free core of a slider: tick positions, snapping, progress and offset bounds
+ * and the touch state machine. Inputs are coordinates along the track axis in pixels and
+ * outputs are offsets, tick indexes and flags, so it runs on a plain JVM. The view feeds it
+ * touch events and renders its state, animations only write the offset back.
+ */
+public class SliderEngine {
+
+	/**
+	 * The release needs no animation.
+	 */
+	public static final int RELEASE_NONE = 0;
+	/**
+	 * A tap on a tick, the closest thumb moves there.
+	 */
+	public static final int RELEASE_TAP = 1;
+	/**
+	 * A dragged thumb was released and settles on the closest tick.
+	 */
+	public static final int RELEASE_DRAG = 2;
+
+	public static final int CHANGED_MIN = 1;
+	public static final int CHANGED_MAX = 2;
+
+	/**
+	 * Touches closer to a thumb than this many thumb radii grab it.
+	 */
+	private static final double TOUCH_SLOP = 3.5;
+
+	/**
+	 * The time constant of the fling friction in seconds, a release velocity {@code v}
+	 * travels {@code v * FLING_TIME_CONSTANT} before snapping.
+	 */
+	private static final float FLING_TIME_CONSTANT = 0.2f;
+
+	private float mOrigin, mRadius, mLength;
+	private int mCount = 2;
+	// Tick positions as fractions of the track length, null for evenly spaced ticks.
+	private float[] mFractions;
+	private boolean mRange;
+
+	private int mMinProgress = 0, mMaxProgress = -1;
+	// The ticks the thumbs were shown on at the last update, offset included.
+	private int mShownMinProgress = 0, mShownMaxProgress = -1;
+	private int mPendingPosition = -1, mPressedPosition = -1;
+	private float mOffset, mMinOffset, mMaxOffset;
+	private float mClosestDistance;
+	private boolean mSkipMove;
+
+	private int mReleasePosition = -1;
+	private float mReleaseOffset;
+
+	/**
+	 * @param origin The start padding of the track (left or top)
+	 * @param radius The thumb radius
+	 * @param length The distance between the first and the last tick
+	 */
+	public void setGeometry(float origin, float radius, float length) {
+		mOrigin = origin;
+		mRadius = radius;
+		mLength = length;
+	}
+
+	/**
+	 * @param fractions The tick positions as fractions of the track length, or {@code null}
+	 *                  for evenly spaced ticks
+	 */
+	public void setCount(int count, float[] fractions) {
+		if (count < 2) {
+			throw new IllegalArgumentException("Count must larger than 2.");
+		}
+		if (fractions != null && fractions.length != count) {
+			throw new IllegalArgumentException("Fractions must have one element per tick.");
+		}
+		mCount = count;
+		mFractions = fractions;
+		checkProgressBound();
+	}
+
+	public int getCount() {
+		return mCount;
+	}
+
+	public void setRange(boolean range) {
+		mRange = range;
+		checkProgressBound();
+	}
+
+	public boolean isRange() {
+		return mRange;
+	}
+
+	/**
+	 * Sets both progresses at once and bounds them, {@code maxProgress} is ignored unless
+	 * in range mode.
+	 */
+	public void setProgress(int minProgress, int maxProgress) {
+		mMinProgress = minProgress;
+		mMaxProgress = maxProgress;
+		checkProgressBound();
+	}
+
+	public void setMinProgress(int progress) {
+		mMinProgress = progress;
+		checkProgressBound();
+	}
+
+	public int getMinProgress() {
+		return mMinProgress;
+	}
+
+	public void setMaxProgress(int progress) {
+		mMaxProgress = progress;
+		checkProgressBound();
+	}
+
+	/**
+	 * @return The max progress, or {@code -1} unless in range mode
+	 */
+	public int getMaxProgress() {
+		return mMaxProgress;
+	}
+
+	private void checkProgressBound() {
+		if (mRange) {
+			if (mMaxProgress == -1) {
+				mMaxProgress = mCount - 1;
+			} else if (mMaxProgress > mCount - 1) {
+				mMaxProgress = mCount - 1;
+			}
+			if (mMinProgress >= mMaxProgress) {
+				mMinProgress = mMaxProgress - 1;
+			}
+		} else {
+			mMaxProgress = -1;
+			if (mMinProgress > mCount - 1) {
+				mMinProgress = mCount - 1;
+			}
+		}
+		mShownMinProgress = mMinProgress;
+		mShownMaxProgress = mMaxProgress;
+	}
+
+	/**
+	 * @return The touched thumb's progress, the tapped tick, or {@code -1} when idle
+	 */
+	public int getPendingPosition() {
+		return mPendingPosition;
+	}
+
+	public void setPendingPosition(int position) {
+		mPendingPosition = position;
+	}
+
+	/**
+	 * @return The progress of the thumb held down, or {@code -1}
+	 */
+	public int getPressedPosition() {
+		return mPressedPosition;
+	}
+
+	/**
+	 * @return {@code true} if the pending position is one of the thumbs
+	 */
+	public boolean isPendingOnThumb() {
+		return mPendingPosition != -1 &&
+				(mPendingPosition == mMinProgress || mPendingPosition == mMaxProgress && mRange);
+	}
+
+	/**
+	 * Points the pending and the pressed position at a thumb again after its progress was
+	 * set while it was touched.
+	 */
+	public void followThumb(boolean min) {
+		int position = min ? mMinProgress : mMaxProgress;
+		mPendingPosition = position;
+		if (mPressedPosition != -1) {
+			mPressedPosition = position;
+		}
+	}
+
+	/**
+	 * @return The offset of the pending thumb from its tick in pixels
+	 */
+	public float getOffset() {
+		return mOffset;
+	}
+
+	public void setOffset(float offset) {
+		mOffset = offset;
+	}
+
+	/**
+	 * Handles a touch down at {@code p}. A touch within reach of a thumb grabs it, any other
+	 * touch is pending on the closest tick. Call {@link #press(boolean)} next.
+	 *
+	 * @return The pending position
+	 */
+	public int down(float p) {
+		mOffset = 0;
+		mPendingPosition = -1;
+		mSkipMove = false;
+
+		double slop = mRadius * TOUCH_SLOP;
+		if (!mRange) {
+			float c = getPosition(mMinProgress, false);
+			if (c - slop <= p && p <= c + slop) {
+				mPendingPosition = mMinProgress;
+			}
+		} else {
+			float c1 = getPosition(mMinProgress, false);
+			float c2 = getPosition(mMaxProgress, false);
+			if (c1 - slop <= p && p <= c1 + slop) {
+				mPendingPosition = mMinProgress;
+			} else if (c2 - slop <= p && p <= c2 + slop) {
+				mPendingPosition = mMaxProgress;
+			}
+		}
+		if (mPendingPosition == -1) {
+			mPendingPosition = getClosestPosition(p);
+		}
+		return mPendingPosition;
+	}
+
+	/**
+	 * Completes a touch down. When clickable, the closest thumb jumps to a touched tick and
+	 * follows the finger from there, otherwise a touch off the thumbs is dropped.
+	 */
+	public void press(boolean clickable) {
+		if (clickable) {
+			if (mRange) {
+				if (Math.abs(mMinProgress - mPendingPosition) >
+						Math.abs(mMaxProgress - mPendingPosition)) {
+					mMaxProgress = mPendingPosition;
+				} else {
+					mMinProgress = mPendingPosition;
+				}
+			} else {
+				mMinProgress = mPendingPosition;
+			}
+		}
+		checkOffsetBounds(true, clickable);
+	}
+
+	/**
+	 * Moves the pending thumb by {@code delta}, within its bounds. A touch off the thumbs
+	 * which moves too far is no longer a tap.
+	 *
+	 * @return {@code true} if a thumb is dragged
+	 */
+	public boolean move(float delta) {
+		mOffset += delta;
+		if (isPendingOnThumb()) {
+			mOffset = Math.min(Math.max(mOffset, mMinOffset), mMaxOffset);
+			return true;
+		} else if (Math.abs(mOffset) >= mRadius * TOUCH_SLOP) {
+			mSkipMove = true;
+		}
+		return false;
+	}
+
+	/**
+	 * Handles a touch up at {@code p}. Unless {@link #RELEASE_NONE} is returned, the pending
+	 * thumb animates its offset to {@link #getReleaseOffset()} and then settles on
+	 * {@link #getReleasePosition()}.
+	 *
+	 * @param velocity The release velocity along the track in pixels per second, {@code 0}
+	 *                 for no fling
+	 * @return {@link #RELEASE_NONE}, {@link #RELEASE_TAP} or {@link #RELEASE_DRAG}
+	 */
+	public int up(float p, float velocity) {
+		int release = RELEASE_NONE;
+		if (mPendingPosition == -1) {
+			mOffset = 0;
+			return release;
+		}
+		if (!isPendingOnThumb()) {
+			int position = getClosestPosition(p);
+			if (position == mPendingPosition && !mSkipMove) {
+				if (!mRange) {
+					mPendingPosition = mMinProgress;
+				} else if (Math.abs(mMinProgress - position) <= Math.abs(mMaxProgress - position)) {
+					mPendingPosition = mMinProgress;
+				} else {
+					mPendingPosition = mMaxProgress;
+				}
+				mOffset = 0;
+				mReleasePosition = position;
+				mReleaseOffset =
+						getPosition(position, false) - getPosition(mPendingPosition, false);
+				release = RELEASE_TAP;
+			}
+		} else {
+			float offset = mOffset;
+			if (velocity != 0) {
+				offset = Math.max(mMinOffset,
+						Math.min(mMaxOffset, offset + velocity * FLING_TIME_CONSTANT));
+			}
+			mReleasePosition = getClosestPosition(getPosition(mPendingPosition, false) + offset);
+			float dis = offset - mOffset + mClosestDistance;
+			mReleaseOffset = mOffset + dis;
+			release = RELEASE_DRAG;
+		}
+		mPressedPosition = -1;
+		return release;
+	}
+
+	/**
+	 * Handles a canceled gesture.
+	 *
+	 * @return {@code true} if a thumb was touched and should animate its offset back to 0
+	 */
+	public boolean cancel() {
+		boolean onThumb = isPendingOnThumb();
+		if (!onThumb) {
+			mOffset = 0;
+		}
+		mPendingPosition = -1;
+		mPressedPosition = -1;
+		return onThumb;
+	}
+
+	public int getReleasePosition() {
+		return mReleasePosition;
+	}
+
+	public float getReleaseOffset() {
+		return mReleaseOffset;
+	}
+
+	/**
+	 * Ends an offset animation, the pending thumb moves to {@code position}.
+	 *
+	 * @param position The new progress of the pending thumb, or {@code -1} to keep it
+	 */
+	public void settle(int position) {
+		mOffset = 0;
+		if (position != -1) {
+			if (mPendingPosition == mMinProgress) {
+				mMinProgress = position;
+			} else if (mPendingPosition == mMaxProgress && mRange) {
+				mMaxProgress = position;
+			}
+		}
+	}
+
+	/**
+	 * Snaps the thumbs as they are shown, offset included.
+	 *
+	 * @return {@link #CHANGED_MIN} and {@link #CHANGED_MAX} for each thumb shown on another
+	 * tick than at the last update
+	 */
+	public int update() {
+		if (mLength <= 0) {
+			return 0;
+		}
+		int changed = 0;
+		int progress = getClosestPosition(getPosition(mMinProgress, true));
+		if (mShownMinProgress != progress) {
+			mShownMinProgress = progress;
+			changed |= CHANGED_MIN;
+		}
+		if (mRange) {
+			progress = getClosestPosition(getPosition(mMaxProgress, true));
+			if (mShownMaxProgress != progress) {
+				mShownMaxProgress = progress;
+				changed |= CHANGED_MAX;
+			}
+		}
+		return changed;
+	}
+
+	public int getShownMinProgress() {
+		return mShownMinProgress;
+	}
+
+	public int getShownMaxProgress() {
+		return mShownMaxProgress;
+	}
+
+	/**
+	 * Bounds the offset of the pending thumb by the track ends and the other thumb.
+	 *
+	 * @param isTouching Also marks the pending thumb as pressed
+	 * @param clickable  Keeps a pending position off the thumbs instead of dropping it
+	 */
+	public void checkOffsetBounds(boolean isTouching, boolean clickable) {
+		float p = getPosition(mPendingPosition, false);
+		if (mPendingPosition == mMinProgress) {
+			mMinOffset = getPosition(0, false) - p;
+			if (mRange) {
+				mMaxOffset = getPosition(mMaxProgress - 1, false) - p;
+			} else {
+				mMaxOffset = getPosition(mCount - 1, false) - p;
+			}
+			if (isTouching) {
+				mPressedPosition = mPendingPosition;
+			}
+		} else if (mPendingPosition == mMaxProgress && mRange) {
+			mMinOffset = getPosition(mMinProgress + 1, false) - p;
+			mMaxOffset = getPosition(mCount - 1, false) - p;
+			if (isTouching) {
+				mPressedPosition = mPendingPosition;
+			}
+		} else if (!clickable) {
+			mPressedPosition = mPendingPosition = -1;
+		}
+	}
+
+	public float getMinOffset() {
+		return mMinOffset;
+	}
+
+	public float getMaxOffset() {
+		return mMaxOffset;
+	}
+
+	/**
+	 * @param withOffset Adds the offset if {@code progress} is the pending position
+	 * @return The position of a tick in pixels
+	 */
+	public float getPosition(int progress, boolean withOffset) {
+		float offset = withOffset && mPendingPosition == progress ? mOffset : 0;
+		if (mFractions == null) {
+			return TickSnapper.getPosition(mOrigin, mRadius, mLength / (mCount - 1), progress) +
+					offset;
+		}
+		return TickSnapper.getPosition(mOrigin, mRadius, mLength, mFractions, progress) + offset;
+	}
+
+	/**
+	 * Returns the closest tick index and stores its signed distance for
+	 * {@link #getClosestDistance()}, so that no result holder has to be allocated per call.
+	 */
+	public int getClosestPosition(float p) {
+		int position;
+		if (mFractions == null) {
+			float step = mLength / (mCount - 1);
+			position = TickSnapper.getClosestIndex(p, mOrigin, mRadius, step, mCount);
+			mClosestDistance = position == -1 ? Float.MAX_VALUE :
+					TickSnapper.getDistance(p, mOrigin, mRadius, step, position);
+		} else {
+			position = TickSnapper.getClosestIndex(p, mOrigin, mRadius, mLength, mFractions);
+			mClosestDistance = position == -1 ? Float.MAX_VALUE :
+					TickSnapper.getDistance(p, mOrigin, mRadius, mLength, mFractions, position);
+		}
+		return position;
+	}
+
+	/**
+	 * @return The signed distance to the tick of the last {@link #getClosestPosition(float)}
+	 */
+	public float getClosestDistance() {
+		return mClosestDistance;
+	}
+
+	/**
+	 * @return The lowest tick index at or after {@code p}, or the count if there is none
+	 */
+	public int getCeilPosition(float p) {
+		if (mFractions == null) {
+			return TickSnapper.getCeilIndex(p, mOrigin, mRadius, mLength / (mCount - 1), mCount);
+		}
+		return TickSnapper.getCeilIndex(p, mOrigin, mRadius, mLength, mFractions);
+	}
+
+	/**
+	 * @return The highest tick index at or before {@code p}, or {@code -1} if there is none
+	 */
+	public int getFloorPosition(float p) {
+		if (mFractions == null) {
+			return TickSnapper.getFloorIndex(p, mOrigin, mRadius, mLength / (mCount - 1), mCount);
+		}
+		return TickSnapper.getFloorIndex(p, mOrigin, mRadius, mLength, mFractions);
+	}
+}
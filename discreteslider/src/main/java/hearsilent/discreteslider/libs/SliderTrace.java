@@ -0,0 +1,65 @@
+package hearsilent.discreteslider.libs;
+
+import android.os.Build;
+import android.os.Trace;
+
+/**
+ * Named {@link Trace} sections around the slider's hot paths, so that system traces show
+ * the slider's work apart from the rest of {@code View#draw}. Sections are only emitted
+ * when enabled, on API 18+, and on API 29+ only while a trace is being captured.
+ * <p>
+ * Every {@link #begin(String)} must be paired with an {@link #end(boolean)} on the same
+ * thread, passing its result, so that sections stay balanced when tracing is switched on
+ * or off in between. Sections around listeners, formatters or subclass hooks end in a
+ * {@code finally} block, so that an exception thrown by them does not leave one open.
+ */
+public class SliderTrace {
+
+	public static final String DRAW = "DiscreteSlider#onDraw";
+	public static final String DRAW_TICK_MARKS = "DiscreteSlider#drawTickMarks";
+	public static final String RECORD_TICK_MARKS = "DiscreteSlider#recordTickMarks";
+	public static final String DRAW_VALUE_LABEL = "DiscreteSlider#drawValueLabel";
+	public static final String TOUCH = "DiscreteSlider#handleTouchEvent";
+	public static final String MOVE_GESTURE = "MoveGestureDetector#onTouchEvent";
+	public static final String TRACK_PATH = "DiscreteSlider#generateInactiveTrackPath";
+	public static final String VALUE_LABEL_PATH = "DiscreteSlider#generateValueLabelPath";
+	public static final String DISPATCH = "DiscreteSlider#dispatchValueChanged";
+
+	private static boolean sEnabled;
+
+	private SliderTrace() {
+	}
+
+	public static void setEnabled(boolean enabled) {
+		sEnabled = enabled;
+	}
+
+	public static boolean isEnabled() {
+		return sEnabled;
+	}
+
+	/**
+	 * Begins a section if tracing is enabled.
+	 *
+	 * @return {@code true} if a section was begun, pass it to {@link #end(boolean)}
+	 */
+	public static boolean begin(String name) {
+		if (!sEnabled || Build.VERSION.SDK_INT < Build.VERSION_CODES.JELLY_BEAN_MR2) {
+			return false;
+		}
+		if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q && !Trace.isEnabled()) {
+			return false;
+		}
+		Trace.beginSection(name);
+		return true;
+	}
+
+	/**
+	 * Ends the section begun by the {@link #begin(String)} which returned {@code begun}.
+	 */
+	public static void end(boolean begun) {
+		if (begun) {
+			Trace.endSection();
+		}
+	}
+}
@@ -0,0 +1,233 @@
+package hearsilent.discreteslider.libs;
+
+public class TickSnapper {
+
+	/**
+	 * Returns the on-screen position of a tick mark. Every caller that needs a tick position
+	 * must go through this method, so that {@link #getClosestIndex} resolves exactly the
+	 * same float values as a linear scan over all ticks would.
+	 *
+	 * @param origin The start padding of the track (left or top)
+	 * @param radius The thumb radius
+	 * @param step   The distance between two adjacent ticks
+	 * @param index  The tick index
+	 * @return The tick position in pixels
+	 */
+	public static float getPosition(float origin, float radius, float step, int index) {
+		return origin + step * index + radius;
+	}
+
+	/**
+	 * Returns the index of the tick closest to {@code p} in O(1). Ties are resolved to the
+	 * lower index, the same way a scan from {@code 0} to {@code count - 1} with a strict
+	 * comparison would resolve them.
+	 *
+	 * @param p      The position in pixels
+	 * @param origin The start padding of the track (left or top)
+	 * @param radius The thumb radius
+	 * @param step   The distance between two adjacent ticks
+	 * @param count  The tick count
+	 * @return The closest tick index, or {@code -1} if none can be resolved
+	 */
+	public static int getClosestIndex(float p, float origin, float radius, float step,
+	                                  int count) {
+		if (count < 1 || Float.isNaN(p) || Float.isNaN(step)) {
+			return -1;
+		}
+		if (step == 0) {
+			return Math.abs(getPosition(origin, radius, step, 0) - p) < Float.MAX_VALUE ? 0 : -1;
+		}
+
+		// The estimate may be off by one because of float rounding, check its neighbours.
+		double estimate = Math.floor((p - origin - radius) / (double) step);
+		int from = (int) Math.max(Math.min(estimate - 1, count - 1), 0);
+		int to = (int) Math.max(Math.min(estimate + 2, count - 1), 0);
+
+		int index = -1;
+		float dis = Float.MAX_VALUE;
+		for (int i = from; i <= to; i++) {
+			float _dis = Math.abs(getPosition(origin, radius, step, i) - p);
+			if (_dis < dis) {
+				dis = _dis;
+				index = i;
+			}
+		}
+		if (index == -1) {
+			return -1;
+		}
+		// Ticks collapsed onto the same float value resolve to the lowest index.
+		while (index > 0 && Math.abs(getPosition(origin, radius, step, index - 1) - p) <= dis) {
+			dis = Math.abs(getPosition(origin, radius, step, --index) - p);
+		}
+		return index;
+	}
+
+	/**
+	 * Returns the lowest tick index whose position is at or after {@code p}. Requires a
+	 * positive {@code step}.
+	 *
+	 * @return The tick index, or {@code count} if every tick is before {@code p}
+	 */
+	public static int getCeilIndex(float p, float origin, float radius, float step, int count) {
+		int index = getClosestIndex(p, origin, radius, step, count);
+		if (index == -1) {
+			return count;
+		}
+		while (index > 0 && getPosition(origin, radius, step, index - 1) >= p) {
+			index--;
+		}
+		while (index < count && getPosition(origin, radius, step, index) < p) {
+			index++;
+		}
+		return index;
+	}
+
+	/**
+	 * Returns the highest tick index whose position is at or before {@code p}. Requires a
+	 * positive {@code step}.
+	 *
+	 * @return The tick index, or {@code -1} if every tick is after {@code p}
+	 */
+	public static int getFloorIndex(float p, float origin, float radius, float step, int count) {
+		int index = getClosestIndex(p, origin, radius, step, count);
+		if (index == -1) {
+			return -1;
+		}
+		while (index < count - 1 && getPosition(origin, radius, step, index + 1) <= p) {
+			index++;
+		}
+		while (index >= 0 && getPosition(origin, radius, step, index) > p) {
+			index--;
+		}
+		return index;
+	}
+
+	/**
+	 * Returns the signed distance from {@code p} to the tick at {@code index}.
+	 */
+	public static float getDistance(float p, float origin, float radius, float step, int index) {
+		return getPosition(origin, radius, step, index) - p;
+	}
+
+	/**
+	 * Returns the on-screen position of a tick mark on a track with a position table.
+	 *
+	 * @param origin    The start padding of the track (left or top)
+	 * @param radius    The thumb radius
+	 * @param length    The distance between the first and the last tick
+	 * @param fractions The tick positions as fractions of {@code length}, non-decreasing
+	 * @param index     The tick index
+	 * @return The tick position in pixels
+	 */
+	public static float getPosition(float origin, float radius, float length, float[] fractions,
+	                                int index) {
+		return origin + length * fractions[index] + radius;
+	}
+
+	/**
+	 * Returns the index of the tick closest to {@code p} in O(log n) with a binary search over
+	 * the position table. Ties are resolved to the lower index like
+	 * {@link #getClosestIndex(float, float, float, float, int)}.
+	 *
+	 * @return The closest tick index, or {@code -1} if none can be resolved
+	 */
+	public static int getClosestIndex(float p, float origin, float radius, float length,
+	                                  float[] fractions) {
+		int count = fractions.length;
+		if (count < 1 || Float.isNaN(p) || Float.isNaN(length)) {
+			return -1;
+		}
+		if (length == 0) {
+			return Math.abs(getPosition(origin, radius, length, fractions, 0) - p) <
+					Float.MAX_VALUE ? 0 : -1;
+		}
+
+		// The first fraction at or after the one of p, which also holds for a negative length
+		// since dividing by it flips the order back.
+		double t = (p - origin - radius) / (double) length;
+		int low = 0, high = count;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (fractions[mid] < t) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+
+		// The search ran on doubles, settle between its neighbours on the drawn float values.
+		int from = Math.max(low - 2, 0);
+		int to = Math.min(low + 1, count - 1);
+		int index = -1;
+		float dis = Float.MAX_VALUE;
+		for (int i = from; i <= to; i++) {
+			float _dis = Math.abs(getPosition(origin, radius, length, fractions, i) - p);
+			if (_dis < dis) {
+				dis = _dis;
+				index = i;
+			}
+		}
+		if (index == -1) {
+			return -1;
+		}
+		while (index > 0 &&
+				Math.abs(getPosition(origin, radius, length, fractions, index - 1) - p) <= dis) {
+			dis = Math.abs(getPosition(origin, radius, length, fractions, --index) - p);
+		}
+		return index;
+	}
+
+	/**
+	 * Returns the lowest tick index whose position is at or after {@code p}. Requires a
+	 * positive {@code length}.
+	 *
+	 * @return The tick index, or {@code fractions.length} if every tick is before {@code p}
+	 */
+	public static int getCeilIndex(float p, float origin, float radius, float length,
+	                               float[] fractions) {
+		int count = fractions.length;
+		int index = getClosestIndex(p, origin, radius, length, fractions);
+		if (index == -1) {
+			return count;
+		}
+		while (index > 0 && getPosition(origin, radius, length, fractions, index - 1) >= p) {
+			index--;
+		}
+		while (index < count && getPosition(origin, radius, length, fractions, index) < p) {
+			index++;
+		}
+		return index;
+	}
+
+	/**
+	 * Returns the highest tick index whose position is at or before {@code p}. Requires a
+	 * positive {@code length}.
+	 *
+	 * @return The tick index, or {@code -1} if every tick is after {@code p}
+	 */
+	public static int getFloorIndex(float p, float origin, float radius, float length,
+	                                float[] fractions) {
+		int count = fractions.length;
+		int index = getClosestIndex(p, origin, radius, length, fractions);
+		if (index == -1) {
+			return -1;
+		}
+		while (index < count - 1 &&
+				getPosition(origin, radius, length, fractions, index + 1) <= p) {
+			index++;
+		}
+		while (index >= 0 && getPosition(origin, radius, length, fractions, index) > p) {
+			index--;
+		}
+		return index;
+	}
+
+	/**
+	 * Returns the signed distance from {@code p} to the tick at {@code index} of a position
+	 * table.
+	 */
+	public static float getDistance(float p, float origin, float radius, float length,
+	                                float[] fractions, int index) {
+		return getPosition(origin, radius, length, fractions, index) - p;
+	}
+}
@@ -0,0 +1,116 @@
+package hearsilent.discreteslider.libs;
+
+/**
+ * A fixed size ring buffer of (time, x, y) samples, oldest first. Samples are stored in
+ * primitive arrays, so recording a gesture does not allocate.
+ */
+public class Trajectory {
+
+	private final long[] mTimes;
+	private final float[] mXs;
+	private final float[] mYs;
+	private int mStart;
+	private int mSize;
+
+	public Trajectory(int capacity) {
+		if (capacity < 2) {
+			throw new IllegalArgumentException("Capacity must be at least 2.");
+		}
+		mTimes = new long[capacity];
+		mXs = new float[capacity];
+		mYs = new float[capacity];
+	}
+
+	/**
+	 * Appends a sample, dropping the oldest one when the buffer is full.
+	 *
+	 * @param time The sample time in milliseconds
+	 * @param x    The x coordinate
+	 * @param y    The y coordinate
+	 */
+	public void add(long time, float x, float y) {
+		int index;
+		if (mSize < mTimes.length) {
+			index = (mStart + mSize++) % mTimes.length;
+		} else {
+			index = mStart;
+			mStart = (mStart + 1) % mTimes.length;
+		}
+		mTimes[index] = time;
+		mXs[index] = x;
+		mYs[index] = y;
+	}
+
+	public void clear() {
+		mStart = 0;
+		mSize = 0;
+	}
+
+	public int size() {
+		return mSize;
+	}
+
+	public long getTime(int i) {
+		return mTimes[(mStart + i) % mTimes.length];
+	}
+
+	public float getX(int i) {
+		return mXs[(mStart + i) % mXs.length];
+	}
+
+	public float getY(int i) {
+		return mYs[(mStart + i) % mYs.length];
+	}
+
+	/**
+	 * Returns the x velocity in pixels per second, fitted over the samples of the last
+	 * {@code window} milliseconds.
+	 */
+	public float getVelocityX(long window) {
+		return getVelocity(mXs, window);
+	}
+
+	/**
+	 * Returns the y velocity in pixels per second, fitted over the samples of the last
+	 * {@code window} milliseconds.
+	 */
+	public float getVelocityY(long window) {
+		return getVelocity(mYs, window);
+	}
+
+	/**
+	 * Least squares slope of the samples within the window, which is less sensitive to a
+	 * single noisy sample than the first to last difference.
+	 */
+	private float getVelocity(float[] values, long window) {
+		if (mSize < 2) {
+			return 0;
+		}
+		long newest = getTime(mSize - 1);
+		int first = mSize - 1;
+		while (first > 0 && newest - getTime(first - 1) <= window) {
+			first--;
+		}
+		int n = mSize - first;
+		if (n < 2) {
+			return 0;
+		}
+
+		// Times relative to the newest sample keep the sums small.
+		double sumT = 0, sumV = 0, sumTT = 0, sumTV = 0;
+		for (int i = first; i < mSize; i++) {
+			int index = (mStart + i) % values.length;
+			double t = mTimes[index] - newest;
+			double v = values[index];
+			sumT += t;
+			sumV += v;
+			sumTT += t * t;
+			sumTV += t * v;
+		}
+		double denominator = n * sumTT - sumT * sumT;
+		if (denominator == 0) {
+			return 0;
+		}
+		return (float) ((n * sumTV - sumT * sumV) / denominator * 1000);
+	}
+}
@@ -23,7 +23,21 @@ public class Utils {
 	 * device density
 	 */
 	public static float convertDpToPixel(float dp, Context context) {
-		return dp * (getDisplayMetrics(context).densityDpi / 160f);
+		return convertDpToPixel(dp, getDisplayMetrics(context));
+	}
+
+	/**
+	 * This method converts dp unit to equivalent pixels with already resolved display
+	 * metrics, so that callers converting several values only look the metrics up once.
+	 *
+	 * @param dp      A value in dp (density independent pixels) unit. Which we need
+	 *                to convert into pixels
+	 * @param metrics Device specific display metrics
+	 * @return A float value to represent px equivalent to dp depending on
+	 * device density
+	 */
+	public static float convertDpToPixel(float dp, DisplayMetrics metrics) {
+		return dp * (metrics.densityDpi / 160f);
 	}
 
 	/**
@@ -0,0 +1,142 @@
+package hearsilent.discreteslider;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.view.MotionEvent;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class DiscreteSliderAllocationTest {
+
+	private static final int FRAMES = 5000;
+	// Covers reading the allocation counter itself, independent of the number of frames.
+	private static final long ALLOCATION_BUDGET = 256;
+
+	private DiscreteSlider mSlider;
+	private Canvas mCanvas;
+	private MotionEvent[] mMoveEvents;
+
+	@Before
+	public void setUp() {
+		mSlider = SliderTestUtils.newSlider();
+		mSlider.setCount(10000);
+		SliderTestUtils.layout(mSlider);
+
+		mCanvas = new NoOpCanvas();
+	}
+
+	@Test
+	public void dragFrame_doesNotAllocate() {
+		mSlider.setValueLabelMode(0);
+		mMoveEvents = SliderTestUtils.startDrag(mSlider, 64);
+		// Warm up so that lazily created objects and JIT compilation are out of the way.
+		drag(FRAMES);
+
+		assertDragWithinBudget();
+	}
+
+	@Test
+	public void dragFrame_withValueLabel_doesNotAllocate() {
+		// Fewer distinct values than the label cache holds, so every label is formatted once.
+		mMoveEvents = SliderTestUtils.startDrag(mSlider, 16);
+		drag(FRAMES);
+		// Lets the label finish showing, so that the bubble and its text are drawn.
+		ShadowLooper.idleMainLooper(1, TimeUnit.SECONDS);
+		drag(FRAMES);
+
+		assertDragWithinBudget();
+	}
+
+	private void assertDragWithinBudget() {
+		long allocated = SliderTestUtils.getAllocatedBytes();
+		drag(FRAMES);
+		allocated = SliderTestUtils.getAllocatedBytes() - allocated;
+
+		assertTrue("Drag frames allocated " + allocated + " bytes in " + FRAMES + " frames.",
+				allocated <= ALLOCATION_BUDGET);
+	}
+
+	private void drag(int frames) {
+		for (int i = 0; i < frames; i++) {
+			mSlider.onTouchEvent(mMoveEvents[i % mMoveEvents.length]);
+			mSlider.onDraw(mCanvas);
+		}
+	}
+
+	/**
+	 * Drops every draw, clip and transform call, so that only the slider's own work is
+	 * measured and not the recording done by the shadowed canvas.
+	 */
+	private static class NoOpCanvas extends Canvas {
+
+		@Override
+		public boolean getClipBounds(Rect bounds) {
+			return false;
+		}
+
+		@Override
+		public int save() {
+			return 1;
+		}
+
+		@Override
+		public void restoreToCount(int saveCount) {
+		}
+
+		@Override
+		public boolean clipRect(float left, float top, float right, float bottom) {
+			return true;
+		}
+
+		@Override
+		public void translate(float dx, float dy) {
+		}
+
+		@Override
+		public void scale(float sx, float sy) {
+		}
+
+		@Override
+		public void drawPath(Path path, Paint paint) {
+		}
+
+		@Override
+		public void drawRoundRect(RectF rect, float rx, float ry, Paint paint) {
+		}
+
+		@Override
+		public void drawRect(RectF rect, Paint paint) {
+		}
+
+		@Override
+		public void drawRect(float left, float top, float right, float bottom, Paint paint) {
+		}
+
+		@Override
+		public void drawCircle(float cx, float cy, float radius, Paint paint) {
+		}
+
+		@Override
+		public void drawText(String text, float x, float y, Paint paint) {
+		}
+
+		@Override
+		public void drawBitmap(Bitmap bitmap, float left, float top, Paint paint) {
+		}
+	}
+}
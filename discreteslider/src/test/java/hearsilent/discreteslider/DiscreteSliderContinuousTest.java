@@ -0,0 +1,96 @@
+package hearsilent.discreteslider;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class DiscreteSliderContinuousTest {
+
+	private DiscreteSlider mSlider;
+
+	@Before
+	public void setUp() {
+		mSlider = new DiscreteSlider(RuntimeEnvironment.application);
+	}
+
+	@Test
+	public void continuousMode_mapsValuesToSteps() {
+		mSlider.setContinuousMode(0, 100, 0.01f);
+		assertTrue(mSlider.isContinuousMode());
+		assertEquals(10001, mSlider.getCount());
+
+		mSlider.setValue(42.37f);
+		assertEquals(4237, mSlider.getProgress());
+		assertEquals(42.37f, mSlider.getValue(), 0);
+		assertEquals(100, mSlider.getValueOf(mSlider.getCount() - 1), 0);
+
+		// Out of range values clamp to the ends.
+		assertEquals(0, mSlider.getProgressOf(-5));
+		assertEquals(10000, mSlider.getProgressOf(500));
+	}
+
+	@Test
+	public void continuousMode_keepsValuesWhenPrecisionChanges() {
+		mSlider.setContinuousMode(0, 10, 0.5f);
+		mSlider.setValue(7.5f);
+		mSlider.setContinuousMode(0, 10, 0.1f);
+		assertEquals(75, mSlider.getProgress());
+		assertEquals(7.5f, mSlider.getValue(), 0);
+	}
+
+	@Test
+	public void continuousMode_dispatchesFloatValues() {
+		final float[] reported = {Float.NaN};
+		mSlider.setContinuousMode(-1, 1, 0.25f);
+		mSlider.setOnValueChangedListener(new DiscreteSlider.OnValueChangedListener() {
+
+			@Override
+			public void onValueChanged(float value, boolean fromUser) {
+				reported[0] = value;
+			}
+		});
+		mSlider.setProgress(3);
+		assertEquals(-0.25f, reported[0], 0);
+	}
+
+	@Test
+	public void setCount_leavesContinuousMode() {
+		mSlider.setContinuousMode(0, 1, 0.001f);
+		mSlider.setCount(11);
+		assertFalse(mSlider.isContinuousMode());
+		assertEquals(11, mSlider.getCount());
+	}
+
+	@Test
+	public void continuousMode_keepsTheTickMarkStep() {
+		mSlider.setCount(21);
+		mSlider.setTickMarkStep(5);
+		mSlider.setContinuousMode(0, 1, 0.01f);
+		mSlider.setCount(21);
+		assertEquals(5, mSlider.getTickMarkStep());
+	}
+
+	@Test
+	public void getMaxValue_isNaNWithoutMaxThumb() {
+		assertTrue(Float.isNaN(mSlider.getMaxValue()));
+		mSlider.setContinuousMode(10, 20, 0.5f);
+		assertTrue(Float.isNaN(mSlider.getMaxValue()));
+
+		mSlider.setMode(DiscreteSlider.MODE_RANGE);
+		assertEquals(20, mSlider.getMaxValue(), 0);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void getValueOf_requiresContinuousMode() {
+		mSlider.getValueOf(0);
+	}
+}
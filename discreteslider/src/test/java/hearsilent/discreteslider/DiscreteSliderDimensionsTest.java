@@ -0,0 +1,102 @@
+package hearsilent.discreteslider;
+
+import android.content.Context;
+import android.content.ContextWrapper;
+import android.content.res.Configuration;
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.view.MotionEvent;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class DiscreteSliderDimensionsTest {
+
+	private static final int FRAMES = 100;
+
+	private LookupCountingContext mContext;
+	private DiscreteSlider mSlider;
+	private Canvas mCanvas;
+
+	@Before
+	public void setUp() {
+		mContext = new LookupCountingContext(RuntimeEnvironment.application);
+		mSlider = new DiscreteSlider(mContext);
+		mSlider.setHapticFeedbackEnabled(false);
+		mSlider.setCount(101);
+		SliderTestUtils.layout(mSlider);
+		mCanvas = new Canvas(Bitmap.createBitmap(mSlider.getWidth(), mSlider.getHeight(),
+				Bitmap.Config.ARGB_8888));
+	}
+
+	@Test
+	public void dragFrame_doesNoResourceLookups() {
+		// Resolving the dimensions on creation goes through the counted context.
+		assertTrue(mContext.mLookups > 0);
+
+		MotionEvent[] moves = SliderTestUtils.startDrag(mSlider, 32);
+		drag(moves, moves.length);
+		// Lets the label finish showing, so that every frame also draws the bubble.
+		ShadowLooper.idleMainLooper(1, TimeUnit.SECONDS);
+
+		int lookups = mContext.mLookups;
+		drag(moves, FRAMES);
+		assertEquals("Resource lookups in " + FRAMES + " drag frames.", 0,
+				mContext.mLookups - lookups);
+	}
+
+	@Test
+	public void configurationChange_onlyRefreshesForANewDensity() {
+		Configuration configuration = mContext.getResources().getConfiguration();
+		int lookups = mContext.mLookups;
+		mSlider.onConfigurationChanged(configuration);
+		// Comparing the density is the only lookup.
+		assertEquals(1, mContext.mLookups - lookups);
+
+		RuntimeEnvironment.setQualifiers("xhdpi");
+		configuration = mContext.getResources().getConfiguration();
+		lookups = mContext.mLookups;
+		mSlider.onConfigurationChanged(configuration);
+		// Comparing it and resolving the dimensions again.
+		assertEquals(2, mContext.mLookups - lookups);
+	}
+
+	private void drag(MotionEvent[] moves, int frames) {
+		for (int i = 0; i < frames; i++) {
+			mSlider.onTouchEvent(moves[i % moves.length]);
+			mSlider.onDraw(mCanvas);
+		}
+	}
+
+	/**
+	 * Counts {@link #getResources()} calls, which every display metrics lookup of the slider
+	 * goes through. The view itself keeps the resources it was created with.
+	 */
+	private static class LookupCountingContext extends ContextWrapper {
+
+		private int mLookups;
+
+		LookupCountingContext(Context base) {
+			super(base);
+		}
+
+		@Override
+		public Resources getResources() {
+			mLookups++;
+			return super.getResources();
+		}
+	}
+}
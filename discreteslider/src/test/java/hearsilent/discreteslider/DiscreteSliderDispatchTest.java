@@ -0,0 +1,128 @@
+package hearsilent.discreteslider;
+
+import android.graphics.Canvas;
+import android.view.MotionEvent;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class DiscreteSliderDispatchTest {
+
+	private DiscreteSlider mSlider;
+	private Canvas mCanvas = new Canvas();
+	private int mCalls;
+	private int mLastProgress = -1;
+	private float mX;
+
+	@Before
+	public void setUp() {
+		mSlider = SliderTestUtils.newSlider();
+		mSlider.setValueLabelMode(0);
+		mSlider.setCount(101);
+		mSlider.setOnValueChangedListener(new DiscreteSlider.OnValueChangedListener() {
+
+			@Override
+			public void onValueChanged(int progress, boolean fromUser) {
+				mCalls++;
+				mLastProgress = progress;
+			}
+		});
+		SliderTestUtils.attach(mSlider);
+		ShadowLooper.pauseMainLooper();
+
+		mX = mSlider.getThumbRadius();
+		mSlider.onTouchEvent(MotionEvent.obtain(0, 0, MotionEvent.ACTION_DOWN, mX, 0, 0));
+	}
+
+	@Test
+	public void immediate_coalescesChangesIntoOnePost() {
+		mSlider.setDispatchPolicy(DispatchPolicy.IMMEDIATE);
+		drag(40);
+		// Nothing is dispatched from inside the draw pass.
+		assertEquals(0, mCalls);
+
+		ShadowLooper.runUiThreadTasks();
+		assertEquals(1, mCalls);
+		int dragged = mLastProgress;
+
+		// The released value matches the latest queued one.
+		mSlider.onTouchEvent(MotionEvent.obtain(0, 41, MotionEvent.ACTION_UP, mX, 0, 0));
+		assertEquals(2, mCalls);
+		assertEquals(dragged, mLastProgress);
+	}
+
+	@Test
+	public void changes_doNotDependOnDrawing() {
+		mSlider.setDispatchPolicy(DispatchPolicy.IMMEDIATE);
+		for (int i = 1; i <= 40; i++) {
+			mX += 20;
+			mSlider.onTouchEvent(MotionEvent.obtain(0, i, MotionEvent.ACTION_MOVE, mX, 0, 0));
+		}
+		ShadowLooper.runUiThreadTasks();
+		assertEquals(1, mCalls);
+
+		// Redrawing without new input has no side effects.
+		for (int i = 0; i < 10; i++) {
+			mSlider.onDraw(mCanvas);
+		}
+		ShadowLooper.runUiThreadTasks();
+		assertEquals(1, mCalls);
+	}
+
+	@Test
+	public void debounce_waitsForQuietTime() {
+		mSlider.setDispatchPolicy(DispatchPolicy.debounce(100));
+		drag(40);
+		ShadowLooper.idleMainLooper(50);
+		assertEquals(0, mCalls);
+
+		ShadowLooper.idleMainLooper(50);
+		assertEquals(1, mCalls);
+	}
+
+	@Test
+	public void onRelease_onlyDispatchesTheReleasedValue() {
+		drag(40);
+		ShadowLooper.idleMainLooper(1000);
+		assertEquals(0, mCalls);
+
+		mSlider.onTouchEvent(MotionEvent.obtain(0, 41, MotionEvent.ACTION_UP, mX, 0, 0));
+		assertEquals(1, mCalls);
+	}
+
+	@Test
+	public void fling_dispatchesNothingAfterTheReleasedValue() {
+		mSlider.setFlingEnabled(true);
+		mSlider.setDispatchPolicy(DispatchPolicy.IMMEDIATE);
+		drag(10);
+		ShadowLooper.runUiThreadTasks();
+		int dragged = mLastProgress;
+
+		mSlider.onTouchEvent(MotionEvent.obtain(0, 11, MotionEvent.ACTION_UP, mX, 0, 0));
+		int released = mLastProgress;
+		int calls = mCalls;
+		assertTrue("Released on " + released + ", dragged to " + dragged, released > dragged);
+
+		// Lets the fling pass the ticks up to the landing one.
+		ShadowLooper.idleMainLooper(1000);
+		assertEquals(calls, mCalls);
+		assertEquals(released, mSlider.getProgress());
+	}
+
+	private void drag(int moves) {
+		for (int i = 1; i <= moves; i++) {
+			mX += 20;
+			mSlider.onTouchEvent(MotionEvent.obtain(0, i, MotionEvent.ACTION_MOVE, mX, 0, 0));
+			mSlider.onDraw(mCanvas);
+		}
+	}
+}
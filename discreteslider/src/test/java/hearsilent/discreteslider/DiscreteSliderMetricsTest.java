@@ -0,0 +1,100 @@
+package hearsilent.discreteslider;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.view.MotionEvent;
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import androidx.annotation.NonNull;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class DiscreteSliderMetricsTest {
+
+	private DiscreteSlider mSlider;
+	private Canvas mCanvas;
+	private int mReports;
+	private int mDraws, mTouches, mListenerCalls, mAnimatorStarts;
+	private long mDrawTime;
+
+	private final DiscreteSlider.OnMetricsListener mListener =
+			new DiscreteSlider.OnMetricsListener() {
+
+				@Override
+				public void onMetrics(@NonNull SliderMetrics metrics) {
+					mReports++;
+					mDraws += metrics.getCalls(SliderMetrics.PHASE_DRAW);
+					mDrawTime += metrics.getTime(SliderMetrics.PHASE_DRAW);
+					mTouches += metrics.getCalls(SliderMetrics.PHASE_TOUCH);
+					mListenerCalls += metrics.getCalls(SliderMetrics.PHASE_LISTENER);
+					mAnimatorStarts += metrics.getAnimatorStarts();
+				}
+			};
+
+	@Before
+	public void setUp() {
+		mSlider = SliderTestUtils.newSlider();
+		mSlider.setCount(11);
+		mSlider.setOnValueChangedListener(new DiscreteSlider.OnValueChangedListener());
+		SliderTestUtils.attach(mSlider);
+		// Keeps the window from drawing the slider, so that only the draws below count.
+		mSlider.setVisibility(View.INVISIBLE);
+		ShadowLooper.idleMainLooper();
+		ShadowLooper.pauseMainLooper();
+
+		mCanvas = new Canvas(Bitmap.createBitmap(mSlider.getWidth(), mSlider.getHeight(),
+				Bitmap.Config.ARGB_8888));
+	}
+
+	@Test
+	public void reportsOncePerDrawnFrame() {
+		mSlider.setOnMetricsListener(mListener);
+		float x = mSlider.getThumbRadius();
+		mSlider.onTouchEvent(MotionEvent.obtain(0, 0, MotionEvent.ACTION_DOWN, x, 0, 0));
+		for (int i = 1; i <= 5; i++) {
+			mSlider.onTouchEvent(MotionEvent.obtain(0, i, MotionEvent.ACTION_MOVE, x + i * 50,
+					0, 0));
+		}
+		mSlider.draw(mCanvas);
+		// Nothing is reported from inside the draw pass.
+		assertEquals(0, mReports);
+
+		ShadowLooper.runUiThreadTasks();
+		assertEquals(1, mReports);
+		assertEquals(1, mDraws);
+		assertTrue(mDrawTime > 0);
+		assertEquals(6, mTouches);
+		// The value label was shown while dragging.
+		assertTrue(mAnimatorStarts >= 1);
+
+		mSlider.onTouchEvent(MotionEvent.obtain(0, 6, MotionEvent.ACTION_UP, x + 250, 0, 0));
+		mSlider.draw(mCanvas);
+		mSlider.draw(mCanvas);
+		ShadowLooper.runUiThreadTasks();
+		// Frames drawn before the report ran are merged into it.
+		assertEquals(2, mReports);
+		assertEquals(3, mDraws);
+		assertEquals(7, mTouches);
+		assertEquals(1, mListenerCalls);
+	}
+
+	@Test
+	public void removedListener_stopsReporting() {
+		mSlider.setOnMetricsListener(mListener);
+		mSlider.draw(mCanvas);
+		mSlider.setOnMetricsListener(null);
+		mSlider.draw(mCanvas);
+		ShadowLooper.runUiThreadTasks();
+		assertEquals(0, mReports);
+	}
+}
@@ -0,0 +1,27 @@
+package hearsilent.discreteslider;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class DispatchPolicyTest {
+
+	@Test
+	public void intervals() {
+		assertEquals(0, DispatchPolicy.IMMEDIATE.getInterval());
+		assertEquals(200, DispatchPolicy.throttle(200).getInterval());
+		assertEquals(DispatchPolicy.throttle(200), DispatchPolicy.throttle(200));
+		assertFalse(DispatchPolicy.throttle(200).equals(DispatchPolicy.debounce(200)));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void throttle_rejectsZeroInterval() {
+		DispatchPolicy.throttle(0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void debounce_rejectsNegativeDelay() {
+		DispatchPolicy.debounce(-1);
+	}
+}
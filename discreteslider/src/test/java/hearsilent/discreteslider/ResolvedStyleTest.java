@@ -0,0 +1,106 @@
+package hearsilent.discreteslider;
+
+import android.content.Context;
+import android.util.AttributeSet;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class ResolvedStyleTest {
+
+	// Sets none of the slider attributes, so sliders resolve to the defaults.
+	private static final String STYLE = "@android:style/Widget";
+
+	private Context mContext;
+
+	@Before
+	public void setUp() {
+		mContext = RuntimeEnvironment.application;
+	}
+
+	private ResolvedStyle obtain() {
+		AttributeSet attrs = Robolectric.buildAttributeSet().setStyleAttribute(STYLE).build();
+		return ResolvedStyle.obtain(mContext, attrs);
+	}
+
+	@Test
+	public void style_sharedBySlidersWithTheSameStyle() {
+		ResolvedStyle style = obtain();
+		assertSame(style, obtain());
+		assertEquals(11, style.count);
+	}
+
+	@Test
+	public void style_notCachedWhenTheElementSetsSliderAttributes() {
+		AttributeSet attrs = Robolectric.buildAttributeSet().setStyleAttribute(STYLE)
+				.addAttribute(R.attr.ds_count, "21").build();
+		ResolvedStyle style = ResolvedStyle.obtain(mContext, attrs);
+		assertEquals(21, style.count);
+		assertNotSame(style, ResolvedStyle.obtain(mContext, attrs));
+
+		// Neither does it replace the cached style of its style reference.
+		ResolvedStyle cached = obtain();
+		assertEquals(11, cached.count);
+		assertSame(cached, obtain());
+	}
+
+	@Test
+	public void style_resolvedAgainAfterADensityChange() {
+		ResolvedStyle style = obtain();
+		RuntimeEnvironment.setQualifiers("xhdpi");
+		ResolvedStyle resolved = obtain();
+		assertNotSame(style, resolved);
+		assertEquals(style.radius * 2, resolved.radius, 0.01f);
+		assertSame(resolved, obtain());
+	}
+
+	@Test
+	public void style_resolvedAgainAfterANightModeChange() {
+		ResolvedStyle style = obtain();
+		// The application keeps its theme, only the configuration of its resources changes.
+		RuntimeEnvironment.setQualifiers("+night");
+		ResolvedStyle resolved = obtain();
+		assertNotSame(style, resolved);
+		assertSame(resolved, obtain());
+	}
+
+	@Test
+	public void style_resolvedAgainAfterApplyingAStyleToTheTheme() {
+		ResolvedStyle style = obtain();
+		mContext.getTheme().applyStyle(android.R.style.Theme_DeviceDefault, true);
+		assertNotSame(style, obtain());
+	}
+
+	@Test
+	public void tickMarkPattern_parse() {
+		TickMarkPattern pattern = ResolvedStyle.getTickMarkPattern("dot,DASH,,line,Dot", 3);
+		assertEquals(3, pattern.size());
+		assertEquals(TickMarkPattern.DOT, pattern.getKind(0));
+		assertEquals(TickMarkPattern.DASH, pattern.getKind(1));
+		assertEquals(3, pattern.getLength(1), 0);
+		assertEquals(TickMarkPattern.DOT, pattern.getKind(2));
+
+		// Like the split based parser, surrounding spaces do not match.
+		assertNull(ResolvedStyle.getTickMarkPattern(" dot", 3));
+	}
+
+	@Test
+	public void tickMarkPattern_cachedPerValueAndDashLength() {
+		TickMarkPattern pattern = ResolvedStyle.getTickMarkPattern("dash,dot", 2);
+		assertSame(pattern, ResolvedStyle.getTickMarkPattern("dash,dot", 2));
+		assertNotSame(pattern, ResolvedStyle.getTickMarkPattern("dash,dot", 4));
+		assertNotSame(pattern, ResolvedStyle.getTickMarkPattern("dot,dash", 2));
+	}
+}
@@ -0,0 +1,78 @@
+package hearsilent.discreteslider;
+
+import android.app.Activity;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewGroup;
+
+import org.robolectric.Robolectric;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Fixtures shared by the slider tests.
+ */
+final class SliderTestUtils {
+
+	static final int WIDTH = 1080;
+
+	private SliderTestUtils() {
+	}
+
+	/**
+	 * Creates a slider without haptic feedback in a started activity, not yet attached to it.
+	 */
+	static DiscreteSlider newSlider() {
+		DiscreteSlider slider = new DiscreteSlider(Robolectric.setupActivity(Activity.class));
+		slider.setHapticFeedbackEnabled(false);
+		return slider;
+	}
+
+	/**
+	 * Makes {@code slider} the content of its activity, lets the window settle and lays the
+	 * slider out at {@link #WIDTH}.
+	 */
+	static void attach(DiscreteSlider slider) {
+		((Activity) slider.getContext()).setContentView(slider,
+				new ViewGroup.LayoutParams(WIDTH, ViewGroup.LayoutParams.WRAP_CONTENT));
+		ShadowLooper.idleMainLooper();
+		layout(slider);
+	}
+
+	static void layout(DiscreteSlider slider) {
+		slider.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+				View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED));
+		slider.layout(0, 0, WIDTH, slider.getMeasuredHeight());
+	}
+
+	/**
+	 * @return The x coordinate of {@code tick} in a slider laid out by {@link #layout}
+	 */
+	static float getTickX(DiscreteSlider slider, int tick) {
+		float radius = slider.getThumbRadius();
+		return radius + (WIDTH - radius * 2) / (slider.getCount() - 1) * tick;
+	}
+
+	/**
+	 * Presses the thumb of a slider at progress 0 and creates the move events of a drag away
+	 * from it, 7px apart. Replaying them in a loop drags back and forth over the same values.
+	 */
+	static MotionEvent[] startDrag(DiscreteSlider slider, int moves) {
+		float x = slider.getThumbRadius();
+		MotionEvent[] events = new MotionEvent[moves];
+		for (int i = 0; i < moves; i++) {
+			events[i] = MotionEvent.obtain(0, i + 1, MotionEvent.ACTION_MOVE, x + i * 7, 0, 0);
+		}
+		slider.onTouchEvent(MotionEvent.obtain(0, 0, MotionEvent.ACTION_DOWN, x, 0, 0));
+		return events;
+	}
+
+	/**
+	 * @return The bytes allocated by the current thread so far
+	 */
+	static long getAllocatedBytes() {
+		return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+				.getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+}
@@ -0,0 +1,66 @@
+package hearsilent.discreteslider;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class TickMarkPatternTest {
+
+	private static final byte DOT = TickMarkPattern.DOT, DASH = TickMarkPattern.DASH;
+
+	@Test
+	public void forStep_matchesEveryStepTick() {
+		TickMarkPattern pattern = new TickMarkPattern(new byte[]{DOT, DASH, DASH, DOT, DASH, DOT},
+				new float[]{0, 1, 2, 0, 4, 0});
+		for (int step = 1; step <= 13; step++) {
+			TickMarkPattern stepPattern = pattern.forStep(step);
+			for (int k = 0; k < 50; k++) {
+				int i = k * step;
+				int e = k % stepPattern.size();
+				assertEquals(pattern.getKind(i % pattern.size()), stepPattern.getKind(e));
+				assertEquals(pattern.getLength(i % pattern.size()), stepPattern.getLength(e), 0);
+			}
+		}
+		assertEquals(3, pattern.forStep(2).size());
+		assertEquals(1, pattern.forStep(6).size());
+		assertSame(pattern, pattern.forStep(7));
+	}
+
+	@Test
+	public void fromList_roundTrip() {
+		TickMarkPattern pattern = TickMarkPattern.fromList(Arrays.asList(new Dot(), new Dash(5)));
+		assertEquals(new TickMarkPattern(new byte[]{DOT, DASH}, new float[]{0, 5}), pattern);
+
+		List<Object> list = pattern.toList();
+		assertEquals(2, list.size());
+		assertTrue(list.get(0) instanceof Dot);
+		assertEquals(5, ((Dash) list.get(1)).length, 0);
+
+		assertNull(TickMarkPattern.fromList(Arrays.asList()));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void fromList_rejectsOtherObjects() {
+		TickMarkPattern.fromList(Arrays.<Object>asList(new Dot(), "dash"));
+	}
+
+	@Test
+	public void parse_ignoresUnknownElements() {
+		TickMarkPattern pattern = TickMarkPattern.parse("Dot,,dash,line,DASH,", 2);
+		assertEquals(new TickMarkPattern(new byte[]{DOT, DASH, DASH}, new float[]{0, 2, 2}),
+				pattern);
+		assertNull(TickMarkPattern.parse("", 2));
+		assertNull(TickMarkPattern.parse("dots", 2));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void constructor_rejectsMismatchedLengths() {
+		new TickMarkPattern(new byte[]{DOT, DASH}, new float[]{0});
+	}
+}
@@ -0,0 +1,148 @@
+package hearsilent.discreteslider;
+
+import android.view.MotionEvent;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class TouchReplayTest {
+
+	// Covers the next frame Robolectric schedules for every invalidating event, far less
+	// than re-creating a path, an animator or a label per event.
+	private static final long MOVE_ALLOCATION_BUDGET = 2048;
+
+	private DiscreteSlider mSlider;
+	private TouchReplayer mReplayer;
+	private float mRadius;
+
+	@Before
+	public void setUp() {
+		mSlider = SliderTestUtils.newSlider();
+		SliderTestUtils.attach(mSlider);
+		mRadius = mSlider.getThumbRadius();
+		mReplayer = new TouchReplayer(mSlider);
+	}
+
+	private static TouchRecording roundTrip(TouchRecording recording) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		recording.writeTo(out);
+		return TouchRecording.readFrom(new ByteArrayInputStream(out.toByteArray()));
+	}
+
+	/**
+	 * A drag from {@code x} by {@code moves} steps of {@code dx} every {@code interval}
+	 * milliseconds, released right after the last one.
+	 */
+	private static TouchRecording drag(float x, int moves, float dx, long interval) {
+		TouchRecording recording = new TouchRecording();
+		long time = 0;
+		recording.add(MotionEvent.obtain(0, time, MotionEvent.ACTION_DOWN, x, 0, 0));
+		for (int i = 0; i < moves; i++) {
+			time += interval;
+			x += dx;
+			recording.add(MotionEvent.obtain(0, time, MotionEvent.ACTION_MOVE, x, 0, 0));
+		}
+		recording.add(MotionEvent.obtain(0, time + interval, MotionEvent.ACTION_UP, x, 0, 0));
+		return recording;
+	}
+
+	@Test
+	public void recording_roundTripsBatchedSamples() throws IOException {
+		TouchRecording recording = new TouchRecording();
+		recording.add(MotionEvent.obtain(100, 100, MotionEvent.ACTION_DOWN, 10, 20, 0));
+		MotionEvent move = MotionEvent.obtain(100, 104, MotionEvent.ACTION_MOVE, 15, 20, 0);
+		move.addBatch(108, 20, 21, 1, 1, 0);
+		move.addBatch(112, 25, 22, 1, 1, 0);
+		recording.add(move);
+		recording.add(MotionEvent.obtain(100, 120, MotionEvent.ACTION_UP, 25, 22, 0));
+
+		List<MotionEvent> events = roundTrip(recording).obtainEvents(1000);
+		assertEquals(3, events.size());
+		assertEquals(MotionEvent.ACTION_DOWN, events.get(0).getAction());
+		MotionEvent replayed = events.get(1);
+		assertEquals(MotionEvent.ACTION_MOVE, replayed.getAction());
+		assertEquals(1000, replayed.getDownTime());
+		assertEquals(1012, replayed.getEventTime());
+		assertEquals(2, replayed.getHistorySize());
+		assertEquals(1004, replayed.getHistoricalEventTime(0));
+		assertEquals(15, replayed.getHistoricalX(0, 0), 0);
+		assertEquals(25, replayed.getX(), 0);
+		assertEquals(22, replayed.getY(), 0);
+		assertEquals(1, replayed.getPressure(), 0);
+		assertEquals(1020, events.get(2).getEventTime());
+	}
+
+	@Test(expected = IOException.class)
+	public void readFrom_rejectsTruncatedRecordings() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		drag(0, 3, 10, 8).writeTo(out);
+		byte[] bytes = out.toByteArray();
+		TouchRecording.readFrom(new ByteArrayInputStream(Arrays.copyOf(bytes, bytes.length - 3)));
+	}
+
+	@Test
+	public void slider_recordsTheEventsItReceives() throws IOException {
+		TouchRecording recording = new TouchRecording();
+		mSlider.setTouchRecording(recording);
+		new TouchReplayer(mSlider).replay(roundTrip(drag(mRadius, 5, 20, 8)), 500);
+		assertEquals(7, recording.size());
+	}
+
+	@Test
+	public void tapOnTick_jumpsTheThumb() throws IOException {
+		mSlider.setClickable(true);
+		float x = SliderTestUtils.getTickX(mSlider, 8);
+		TouchRecording recording = new TouchRecording();
+		recording.add(MotionEvent.obtain(0, 0, MotionEvent.ACTION_DOWN, x, 0, 0));
+		recording.add(MotionEvent.obtain(0, 60, MotionEvent.ACTION_UP, x, 0, 0));
+
+		mReplayer.replay(roundTrip(recording), 1000);
+		mReplayer.writeReport("tapOnTick");
+		assertEquals(2, mReplayer.getEventCount());
+		assertEquals(1, mReplayer.getValueChangeCount(1));
+		assertEquals("8", mReplayer.getLastValueChange());
+		assertEquals(8, mSlider.getProgress());
+	}
+
+	@Test
+	public void fastFlick_settlesOnTheLandingTick() throws IOException {
+		mSlider.setCount(101);
+		mSlider.setFlingEnabled(true);
+		// 30px every 8ms, 3750px/s.
+		mReplayer.replay(roundTrip(drag(mRadius, 10, 30, 8)), 2000);
+		mReplayer.writeReport("fastFlick");
+
+		assertEquals(12, mReplayer.getEventCount());
+		int released = Integer.parseInt(mReplayer.getLastValueChange());
+		int dragged = Math.round(300 / ((SliderTestUtils.WIDTH - mRadius * 2) / 100));
+		assertTrue("Released on " + released + ", dragged to " + dragged, released > dragged);
+		// The listener hears the landing value on release, the thumb arrives there later.
+		assertEquals(1, mReplayer.getValueChangeCount(11));
+		assertEquals(released, mSlider.getProgress());
+	}
+
+	@Test
+	public void slowDrag_staysWithinTheMoveAllocationBudget() throws IOException {
+		mSlider.setCount(101);
+		mReplayer.replay(roundTrip(drag(mRadius, 60, 12, 16)), 1000);
+		mReplayer.writeReport("slowDrag");
+
+		long allocated = mReplayer.getMedianAllocatedBytes(MotionEvent.ACTION_MOVE);
+		assertTrue("A move event allocated " + allocated + " bytes.",
+				allocated <= MOVE_ALLOCATION_BUDGET);
+	}
+}
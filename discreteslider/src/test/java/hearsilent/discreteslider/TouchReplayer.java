@@ -0,0 +1,183 @@
+package hearsilent.discreteslider;
+
+import android.os.SystemClock;
+import android.view.MotionEvent;
+
+import org.robolectric.shadows.ShadowLooper;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replays a {@link TouchRecording} through a slider, which passes it on to its
+ * {@code MoveGestureDetector}, on a paused Robolectric main looper. Before every event the
+ * looper clock is advanced to the event time, so animators, frame callbacks and posted
+ * dispatches run exactly as far as they would have between the real events. It records the
+ * handling time and the allocated bytes of every event and the listener events it caused.
+ */
+final class TouchReplayer {
+
+	private final DiscreteSlider mSlider;
+	private final List<String> mValueChanges = new ArrayList<>();
+
+	private int[] mActions;
+	private long[] mNanos;
+	private long[] mBytes;
+	private int[] mValueChangeCounts;
+
+	TouchReplayer(DiscreteSlider slider) {
+		mSlider = slider;
+		mSlider.setOnValueChangedListener(new DiscreteSlider.OnValueChangedListener() {
+
+			@Override
+			public void onValueChanged(int progress, boolean fromUser) {
+				mValueChanges.add(Integer.toString(progress));
+			}
+
+			@Override
+			public void onValueChanged(int minProgress, int maxProgress, boolean fromUser) {
+				mValueChanges.add(minProgress + "-" + maxProgress);
+			}
+		});
+	}
+
+	/**
+	 * Replays {@code recording} starting now, then lets the clock run on for
+	 * {@code settleMillis} so that the release animations end.
+	 */
+	void replay(TouchRecording recording, long settleMillis) {
+		ShadowLooper.pauseMainLooper();
+		List<MotionEvent> events = recording.obtainEvents(SystemClock.uptimeMillis());
+		mActions = new int[events.size()];
+		mNanos = new long[events.size()];
+		mBytes = new long[events.size()];
+		mValueChangeCounts = new int[events.size()];
+		mValueChanges.clear();
+
+		for (int i = 0; i < events.size(); i++) {
+			MotionEvent event = events.get(i);
+			long delay = event.getEventTime() - SystemClock.uptimeMillis();
+			if (delay > 0) {
+				ShadowLooper.idleMainLooper(delay, TimeUnit.MILLISECONDS);
+			}
+			int valueChanges = mValueChanges.size();
+			long bytes = SliderTestUtils.getAllocatedBytes();
+			long time = System.nanoTime();
+			mSlider.dispatchTouchEvent(event);
+			mNanos[i] = System.nanoTime() - time;
+			mBytes[i] = SliderTestUtils.getAllocatedBytes() - bytes;
+			mActions[i] = event.getActionMasked();
+			mValueChangeCounts[i] = mValueChanges.size() - valueChanges;
+			event.recycle();
+		}
+		ShadowLooper.idleMainLooper(settleMillis, TimeUnit.MILLISECONDS);
+	}
+
+	int getEventCount() {
+		return mNanos.length;
+	}
+
+	long getNanos(int event) {
+		return mNanos[event];
+	}
+
+	long getAllocatedBytes(int event) {
+		return mBytes[event];
+	}
+
+	/**
+	 * @return The median of the bytes allocated while handling the events with
+	 * {@code action}, or {@code 0} if there were none
+	 */
+	long getMedianAllocatedBytes(int action) {
+		long[] bytes = new long[mBytes.length];
+		int count = 0;
+		for (int i = 0; i < mBytes.length; i++) {
+			if (mActions[i] == action) {
+				bytes[count++] = mBytes[i];
+			}
+		}
+		if (count == 0) {
+			return 0;
+		}
+		Arrays.sort(bytes, 0, count);
+		return bytes[count / 2];
+	}
+
+	/**
+	 * @return The listener events caused by handling {@code event}, not counting the ones
+	 * posted until the next event
+	 */
+	int getValueChangeCount(int event) {
+		return mValueChangeCounts[event];
+	}
+
+	/**
+	 * @return Every listener event of the replay as {@code progress} or {@code min-max}
+	 */
+	List<String> getValueChanges() {
+		return mValueChanges;
+	}
+
+	/**
+	 * @return The last listener event, or {@code null} if there was none
+	 */
+	String getLastValueChange() {
+		return mValueChanges.isEmpty() ? null : mValueChanges.get(mValueChanges.size() - 1);
+	}
+
+	/**
+	 * Writes {@link #toString()} to {@code build/reports/touch-replay/<name>.txt}, relative to
+	 * the working directory of the test run, so CI can keep the numbers of every run.
+	 */
+	void writeReport(String name) throws IOException {
+		File dir = new File("build/reports/touch-replay");
+		if (!dir.isDirectory() && !dir.mkdirs()) {
+			throw new IOException("Cannot create " + dir + ".");
+		}
+		try (Writer writer = new FileWriter(new File(dir, name + ".txt"))) {
+			writer.write(toString());
+			writer.write('\n');
+		}
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		long totalNanos = 0, totalBytes = 0, maxNanos = 0;
+		for (int i = 0; i < mNanos.length; i++) {
+			builder.append(String.format(Locale.US, "%4d %-6s %9dns %7dB %d\n", i,
+					actionToString(mActions[i]), mNanos[i], mBytes[i], mValueChangeCounts[i]));
+			totalNanos += mNanos[i];
+			totalBytes += mBytes[i];
+			maxNanos = Math.max(maxNanos, mNanos[i]);
+		}
+		builder.append(String.format(Locale.US,
+				"%d events, %dns total, %dns max, %dB allocated, value changes %s",
+				mNanos.length, totalNanos, maxNanos, totalBytes, mValueChanges));
+		return builder.toString();
+	}
+
+	private static String actionToString(int action) {
+		switch (action) {
+			case MotionEvent.ACTION_DOWN:
+				return "DOWN";
+			case MotionEvent.ACTION_UP:
+				return "UP";
+			case MotionEvent.ACTION_MOVE:
+				return "MOVE";
+			case MotionEvent.ACTION_CANCEL:
+				return "CANCEL";
+			default:
+				return Integer.toString(action);
+		}
+	}
+
+}
@@ -0,0 +1,58 @@
+package hearsilent.discreteslider.libs;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class LabelCacheTest {
+
+	@Test
+	public void put_storesLabelAndBounds() {
+		LabelCache cache = new LabelCache(4);
+		int index = cache.put(7, "7", 1, -12, 9, 0);
+
+		assertEquals(index, cache.indexOf(7));
+		assertEquals("7", cache.getLabel(index));
+		assertEquals(1, cache.getLeft(index));
+		assertEquals(-12, cache.getTop(index));
+		assertEquals(9, cache.getRight(index));
+		assertEquals(0, cache.getBottom(index));
+		assertEquals(-1, cache.indexOf(8));
+	}
+
+	@Test
+	public void put_evictsLeastRecentlyUsed() {
+		LabelCache cache = new LabelCache(3);
+		cache.put(1, "1", 0, 0, 0, 0);
+		cache.put(2, "2", 0, 0, 0, 0);
+		cache.put(3, "3", 0, 0, 0, 0);
+		cache.indexOf(1);
+		cache.put(4, "4", 0, 0, 0, 0);
+
+		assertEquals(3, cache.size());
+		assertEquals(-1, cache.indexOf(2));
+		assertEquals("1", cache.getLabel(cache.indexOf(1)));
+		assertEquals("3", cache.getLabel(cache.indexOf(3)));
+		assertEquals("4", cache.getLabel(cache.indexOf(4)));
+	}
+
+	@Test
+	public void put_keepsNullLabels() {
+		LabelCache cache = new LabelCache(2);
+		int index = cache.put(5, null, 0, 0, 0, 0);
+
+		assertEquals(index, cache.indexOf(5));
+		assertNull(cache.getLabel(index));
+	}
+
+	@Test
+	public void clear_removesEntries() {
+		LabelCache cache = new LabelCache(2);
+		cache.put(1, "1", 0, 0, 0, 0);
+		cache.clear();
+
+		assertEquals(0, cache.size());
+		assertEquals(-1, cache.indexOf(1));
+	}
+}
@@ -0,0 +1,38 @@
+package hearsilent.discreteslider.libs;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class LabelFormatTest {
+
+	@Test
+	public void format_dropsTheFractionOfWholeValues() {
+		assertEquals("2", LabelFormat.format(2f));
+		assertEquals("-7", LabelFormat.format(-7f, 2));
+		assertEquals("0", LabelFormat.format(-0f));
+	}
+
+	@Test
+	public void format_smallValuesWithoutExponent() {
+		assertEquals("0.0005", LabelFormat.format(5.0E-4f));
+		assertEquals("0.0005", LabelFormat.format(5.0E-4f, 4));
+		assertEquals("-0.0001", LabelFormat.format(-1.0E-4f, 4));
+	}
+
+	@Test
+	public void format_largeValuesWithoutExponent() {
+		assertEquals("10000000", LabelFormat.format(1.0E7f));
+		// Above the int range, where an int cast would saturate.
+		assertEquals("2147483648", LabelFormat.format(2147483648f));
+		assertEquals("3000000000", LabelFormat.format(3.0E9f, 2));
+		assertEquals("100000000000000000000", LabelFormat.format(1.0E20f));
+	}
+
+	@Test
+	public void format_roundsToThePrecision() {
+		assertEquals("0.5", LabelFormat.format(0.5f, 2));
+		assertEquals("0.33", LabelFormat.format(1 / 3f, 2));
+		assertEquals("0", LabelFormat.format(4.0E-5f, 4));
+	}
+}
@@ -0,0 +1,62 @@
+package hearsilent.discreteslider.libs;
+
+import android.view.MotionEvent;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class MoveGestureDetectorTest {
+
+	private MoveGestureDetector mDetector;
+
+	@Before
+	public void setUp() {
+		mDetector = new MoveGestureDetector(RuntimeEnvironment.application,
+				new MoveGestureDetector.SimpleOnMoveGestureListener());
+	}
+
+	@Test
+	public void pointerUp_leavesTheLiftingFingerOut() {
+		mDetector.onTouchEvent(obtain(0, MotionEvent.ACTION_DOWN, 0, 100));
+		mDetector.onTouchEvent(obtain(8, MotionEvent.ACTION_POINTER_DOWN |
+				1 << MotionEvent.ACTION_POINTER_INDEX_SHIFT, 0, 100, 300));
+		mDetector.onTouchEvent(obtain(16, MotionEvent.ACTION_MOVE, 0, 100, 300));
+		// The first finger lifts, the second one rests.
+		mDetector.onTouchEvent(obtain(24, MotionEvent.ACTION_POINTER_UP, 0, 100, 300));
+		mDetector.onTouchEvent(obtain(32, MotionEvent.ACTION_MOVE, 1, 300));
+
+		Trajectory trajectory = mDetector.getTrajectory();
+		assertEquals(2, trajectory.size());
+		assertEquals(300, trajectory.getX(0), 0);
+		assertEquals(300, trajectory.getX(1), 0);
+		assertEquals(0, mDetector.getVelocityX(), 0);
+	}
+
+	/**
+	 * @return An event with a pointer at every x, with ids counting up from {@code firstId}
+	 */
+	private static MotionEvent obtain(long time, int action, int firstId, float... xs) {
+		MotionEvent.PointerProperties[] properties =
+				new MotionEvent.PointerProperties[xs.length];
+		MotionEvent.PointerCoords[] coords = new MotionEvent.PointerCoords[xs.length];
+		for (int i = 0; i < xs.length; i++) {
+			properties[i] = new MotionEvent.PointerProperties();
+			properties[i].id = firstId + i;
+			properties[i].toolType = MotionEvent.TOOL_TYPE_FINGER;
+			coords[i] = new MotionEvent.PointerCoords();
+			coords[i].x = xs[i];
+			coords[i].pressure = 1;
+			coords[i].size = 1;
+		}
+		return MotionEvent.obtain(0, time, action, xs.length, properties, coords, 0, 0, 1, 1, 0,
+				0, 0, 0);
+	}
+}
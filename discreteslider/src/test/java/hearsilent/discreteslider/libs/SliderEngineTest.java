@@ -0,0 +1,208 @@
+package hearsilent.discreteslider.libs;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SliderEngineTest {
+
+	private SliderEngine mEngine;
+
+	@Before
+	public void setUp() {
+		mEngine = new SliderEngine();
+		// 11 ticks, 10px apart.
+		mEngine.setGeometry(0, 5, 100);
+		mEngine.setCount(11, null);
+	}
+
+	/**
+	 * Settles the pending thumb the way the view does once its offset animation ends.
+	 */
+	private void finish(int release) {
+		if (release != SliderEngine.RELEASE_NONE) {
+			mEngine.setOffset(mEngine.getReleaseOffset());
+			mEngine.update();
+			mEngine.settle(mEngine.getReleasePosition());
+		}
+		mEngine.setPendingPosition(-1);
+		mEngine.update();
+	}
+
+	@Test
+	public void drag_snapsToTheClosestTick() {
+		mEngine.setMinProgress(2);
+		assertEquals(2, mEngine.down(mEngine.getPosition(2, false)));
+		mEngine.press(false);
+		assertEquals(2, mEngine.getPressedPosition());
+
+		assertTrue(mEngine.move(24));
+		assertEquals(SliderEngine.CHANGED_MIN, mEngine.update());
+		assertEquals(4, mEngine.getShownMinProgress());
+
+		int release = mEngine.up(mEngine.getPosition(2, true), 0);
+		assertEquals(SliderEngine.RELEASE_DRAG, release);
+		assertEquals(4, mEngine.getReleasePosition());
+		assertEquals(20, mEngine.getReleaseOffset(), 1e-4f);
+		assertEquals(-1, mEngine.getPressedPosition());
+
+		finish(release);
+		assertEquals(4, mEngine.getMinProgress());
+		assertEquals(0, mEngine.getOffset(), 0);
+	}
+
+	@Test
+	public void drag_staysWithinTheTrack() {
+		mEngine.setMinProgress(8);
+		mEngine.down(mEngine.getPosition(8, false));
+		mEngine.press(false);
+		mEngine.move(500);
+		assertEquals(20, mEngine.getOffset(), 1e-4f);
+		mEngine.move(-1000);
+		assertEquals(-80, mEngine.getOffset(), 1e-4f);
+	}
+
+	@Test
+	public void fling_travelsAndClampsToTheBounds() {
+		mEngine.setMinProgress(5);
+		mEngine.down(mEngine.getPosition(5, false));
+		mEngine.press(false);
+		mEngine.move(3);
+
+		// 100px/s travels 20px, from an offset of 3px that lands on tick 7.
+		mEngine.up(0, 100);
+		assertEquals(7, mEngine.getReleasePosition());
+
+		mEngine.setMinProgress(5);
+		mEngine.down(mEngine.getPosition(5, false));
+		mEngine.press(false);
+		mEngine.up(0, 10000);
+		assertEquals(10, mEngine.getReleasePosition());
+		assertEquals(50, mEngine.getReleaseOffset(), 1e-4f);
+	}
+
+	@Test
+	public void tap_movesTheClosestThumbWhenClickable() {
+		mEngine.setRange(true);
+		mEngine.setProgress(2, 8);
+
+		float p = mEngine.getPosition(6, false) - 4;
+		assertEquals(6, mEngine.down(p));
+		assertFalse(mEngine.isPendingOnThumb());
+		mEngine.press(true);
+		// The closest thumb jumped to the tick and follows the finger from there.
+		assertEquals(6, mEngine.getMaxProgress());
+		assertTrue(mEngine.isPendingOnThumb());
+		assertEquals(6, mEngine.getPressedPosition());
+	}
+
+	@Test
+	public void tap_animatesTheClosestThumb() {
+		// Not clickable, a touch off the thumbs is dropped.
+		assertEquals(6, mEngine.down(mEngine.getPosition(6, false)));
+		mEngine.press(false);
+		assertEquals(-1, mEngine.getPendingPosition());
+
+		mEngine.setRange(true);
+		mEngine.setProgress(1, 9);
+		mEngine.down(mEngine.getPosition(6, false));
+		mEngine.checkOffsetBounds(false, true);
+		mEngine.move(3);
+		int release = mEngine.up(mEngine.getPosition(6, false), 0);
+		assertEquals(SliderEngine.RELEASE_TAP, release);
+		assertEquals(9, mEngine.getPendingPosition());
+		assertEquals(6, mEngine.getReleasePosition());
+		assertEquals(-30, mEngine.getReleaseOffset(), 1e-4f);
+
+		finish(release);
+		assertEquals(6, mEngine.getMaxProgress());
+	}
+
+	@Test
+	public void tap_isDroppedAfterMovingTooFar() {
+		mEngine.down(mEngine.getPosition(6, false));
+		mEngine.checkOffsetBounds(false, true);
+		assertFalse(mEngine.move(20));
+		assertEquals(SliderEngine.RELEASE_NONE, mEngine.up(mEngine.getPosition(6, false), 0));
+	}
+
+	@Test
+	public void range_thumbsCannotCross() {
+		mEngine.setRange(true);
+		mEngine.setProgress(3, 5);
+		mEngine.down(mEngine.getPosition(3, false));
+		mEngine.press(false);
+		assertEquals(-30, mEngine.getMinOffset(), 1e-4f);
+		assertEquals(10, mEngine.getMaxOffset(), 1e-4f);
+
+		mEngine.setProgress(9, 4);
+		assertEquals(3, mEngine.getMinProgress());
+		assertEquals(4, mEngine.getMaxProgress());
+	}
+
+	@Test
+	public void progress_isBoundedByTheCount() {
+		mEngine.setMinProgress(20);
+		assertEquals(10, mEngine.getMinProgress());
+		assertEquals(-1, mEngine.getMaxProgress());
+
+		mEngine.setRange(true);
+		assertEquals(9, mEngine.getMinProgress());
+		assertEquals(10, mEngine.getMaxProgress());
+
+		mEngine.setCount(5, null);
+		assertEquals(3, mEngine.getMinProgress());
+		assertEquals(4, mEngine.getMaxProgress());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void setCount_rejectsMismatchedFractions() {
+		mEngine.setCount(3, new float[]{0, 1});
+	}
+
+	@Test
+	public void cancel_returnsATouchedThumb() {
+		mEngine.down(mEngine.getPosition(0, false));
+		mEngine.press(false);
+		mEngine.move(12);
+		assertTrue(mEngine.cancel());
+		assertEquals(12, mEngine.getOffset(), 1e-4f);
+		assertEquals(-1, mEngine.getPendingPosition());
+	}
+
+	@Test
+	public void randomGestures_keepTheStateConsistent() {
+		Random random = new Random(21);
+		mEngine.setRange(true);
+		mEngine.setProgress(2, 8);
+		for (int i = 0; i < 20000; i++) {
+			float p = random.nextFloat() * 120 - 10;
+			mEngine.down(p);
+			mEngine.press(random.nextBoolean());
+			for (int j = random.nextInt(8); j > 0; j--) {
+				mEngine.move(random.nextFloat() * 60 - 30);
+				mEngine.update();
+			}
+			float velocity = random.nextBoolean() ? 0 : random.nextFloat() * 4000 - 2000;
+			if (random.nextInt(10) == 0) {
+				if (mEngine.cancel()) {
+					mEngine.setOffset(0);
+				}
+				mEngine.update();
+			} else {
+				finish(mEngine.up(p, velocity));
+			}
+
+			int min = mEngine.getMinProgress();
+			int max = mEngine.getMaxProgress();
+			assertTrue("min=" + min + ", max=" + max, 0 <= min && min < max && max <= 10);
+			assertEquals(min, mEngine.getShownMinProgress());
+			assertEquals(max, mEngine.getShownMaxProgress());
+		}
+	}
+}
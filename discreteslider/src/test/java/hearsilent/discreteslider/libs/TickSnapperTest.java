@@ -0,0 +1,215 @@
+package hearsilent.discreteslider.libs;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class TickSnapperTest {
+
+	/**
+	 * The linear scan {@code DiscreteSlider#getClosestPosition} used before the closed-form
+	 * lookup, kept as the reference implementation.
+	 */
+	private static int scan(float p, float origin, float radius, float step, int count) {
+		float dis = Float.MAX_VALUE;
+		int position = -1;
+		for (int i = 0; i < count; i++) {
+			float _dis = TickSnapper.getPosition(origin, radius, step, i) - p;
+			if (Math.abs(_dis) < Math.abs(dis)) {
+				dis = _dis;
+				position = i;
+			}
+		}
+		return position;
+	}
+
+	private static void assertMatchesScan(float p, float origin, float radius, float length,
+	                                      int count) {
+		float step = length / (count - 1);
+		assertEquals("p=" + p + ", origin=" + origin + ", radius=" + radius + ", length=" +
+						length + ", count=" + count, scan(p, origin, radius, step, count),
+				TickSnapper.getClosestIndex(p, origin, radius, step, count));
+	}
+
+	@Test
+	public void matchesScan_onTicks() {
+		int[] counts = {2, 3, 11, 21, 100, 1001};
+		for (int count : counts) {
+			float step = 980f / (count - 1);
+			for (int i = 0; i < count; i++) {
+				float p = TickSnapper.getPosition(16, 12, step, i);
+				assertMatchesScan(p, 16, 12, 980, count);
+			}
+		}
+	}
+
+	@Test
+	public void matchesScan_onMidpoints() {
+		int[] counts = {2, 3, 7, 11, 64, 1000};
+		for (int count : counts) {
+			float step = 1000f / (count - 1);
+			for (int i = 0; i < count - 1; i++) {
+				float p = (TickSnapper.getPosition(0, 8, step, i) +
+						TickSnapper.getPosition(0, 8, step, i + 1)) / 2f;
+				assertMatchesScan(p, 0, 8, 1000, count);
+				assertMatchesScan(Math.nextUp(p), 0, 8, 1000, count);
+				assertMatchesScan(Math.nextDown(p), 0, 8, 1000, count);
+			}
+		}
+	}
+
+	@Test
+	public void matchesScan_outOfTrack() {
+		assertMatchesScan(-1000, 24, 18, 600, 11);
+		assertMatchesScan(0, 24, 18, 600, 11);
+		assertMatchesScan(5000, 24, 18, 600, 11);
+		assertMatchesScan(Float.MAX_VALUE, 24, 18, 600, 11);
+		assertMatchesScan(-Float.MAX_VALUE, 24, 18, 600, 11);
+	}
+
+	@Test
+	public void matchesScan_degenerateLength() {
+		// Before the first layout the track length is negative or zero.
+		for (float p = -50; p <= 50; p += 0.5f) {
+			assertMatchesScan(p, 0, 18, -12, 11);
+			assertMatchesScan(p, 0, 18, 0, 11);
+			assertMatchesScan(p, 4, 18, 0.001f, 1000);
+		}
+		assertEquals(-1, TickSnapper.getClosestIndex(Float.NaN, 0, 18, 10, 11));
+	}
+
+	@Test
+	public void matchesScan_denseTicks() {
+		Random random = new Random(0x5eed);
+		int[] counts = {10000, 50000, 100000};
+		for (int count : counts) {
+			for (int i = 0; i < 200; i++) {
+				float p = random.nextFloat() * 1200 - 100;
+				assertMatchesScan(p, 32, 18, 1080, count);
+			}
+		}
+	}
+
+	@Test
+	public void matchesScan_random() {
+		Random random = new Random(42);
+		for (int i = 0; i < 20000; i++) {
+			int count = 2 + random.nextInt(500);
+			float origin = random.nextInt(64);
+			float radius = random.nextFloat() * 40;
+			float length = random.nextFloat() * 2000 - 100;
+			float p = random.nextFloat() * (length + 400) - 200 + origin;
+			assertMatchesScan(p, origin, radius, length, count);
+		}
+	}
+
+	@Test
+	public void matchesScan_ceilAndFloor() {
+		Random random = new Random(7);
+		for (int i = 0; i < 20000; i++) {
+			int count = 2 + random.nextInt(300);
+			float origin = random.nextInt(64);
+			float radius = random.nextFloat() * 40;
+			float step = (random.nextFloat() * 2000 + 1) / (count - 1);
+			float p = random.nextFloat() * (step * count + 400) - 200 + origin;
+			if (random.nextInt(4) == 0) {
+				p = TickSnapper.getPosition(origin, radius, step, random.nextInt(count));
+			}
+
+			int ceil = count, floor = -1;
+			for (int j = 0; j < count; j++) {
+				float position = TickSnapper.getPosition(origin, radius, step, j);
+				if (position >= p && ceil == count) {
+					ceil = j;
+				}
+				if (position <= p) {
+					floor = j;
+				}
+			}
+			assertEquals(ceil, TickSnapper.getCeilIndex(p, origin, radius, step, count));
+			assertEquals(floor, TickSnapper.getFloorIndex(p, origin, radius, step, count));
+		}
+	}
+
+	private static int scan(float p, float origin, float radius, float length,
+	                        float[] fractions) {
+		float dis = Float.MAX_VALUE;
+		int position = -1;
+		for (int i = 0; i < fractions.length; i++) {
+			float _dis = TickSnapper.getPosition(origin, radius, length, fractions, i) - p;
+			if (Math.abs(_dis) < Math.abs(dis)) {
+				dis = _dis;
+				position = i;
+			}
+		}
+		return position;
+	}
+
+	private static float[] randomFractions(Random random, int count) {
+		float[] fractions = new float[count];
+		double position = 0;
+		double[] positions = new double[count];
+		for (int i = 1; i < count; i++) {
+			position += random.nextDouble() * random.nextDouble() + 1e-9;
+			positions[i] = position;
+		}
+		for (int i = 0; i < count; i++) {
+			fractions[i] = (float) (positions[i] / position);
+		}
+		return fractions;
+	}
+
+	@Test
+	public void table_matchesScan() {
+		Random random = new Random(3);
+		for (int i = 0; i < 2000; i++) {
+			int count = 2 + random.nextInt(200);
+			float[] fractions = randomFractions(random, count);
+			float origin = random.nextInt(64);
+			float radius = random.nextFloat() * 40;
+			float length = random.nextFloat() * 2000 - 100;
+			for (int j = 0; j < 10; j++) {
+				float p = random.nextFloat() * (Math.abs(length) + 400) - 200 + origin;
+				if (j == 0) {
+					p = TickSnapper
+							.getPosition(origin, radius, length, fractions, random.nextInt(count));
+				}
+				assertEquals(scan(p, origin, radius, length, fractions),
+						TickSnapper.getClosestIndex(p, origin, radius, length, fractions));
+			}
+		}
+		assertEquals(-1, TickSnapper.getClosestIndex(Float.NaN, 0, 18, 100, new float[]{0, 1}));
+	}
+
+	@Test
+	public void table_ceilAndFloor() {
+		Random random = new Random(11);
+		for (int i = 0; i < 5000; i++) {
+			int count = 2 + random.nextInt(100);
+			float[] fractions = randomFractions(random, count);
+			float origin = random.nextInt(64);
+			float radius = random.nextFloat() * 40;
+			float length = random.nextFloat() * 2000 + 1;
+			float p = random.nextFloat() * (length + 400) - 200 + origin;
+			if (random.nextInt(4) == 0) {
+				p = TickSnapper
+						.getPosition(origin, radius, length, fractions, random.nextInt(count));
+			}
+
+			int ceil = count, floor = -1;
+			for (int j = 0; j < count; j++) {
+				float position = TickSnapper.getPosition(origin, radius, length, fractions, j);
+				if (position >= p && ceil == count) {
+					ceil = j;
+				}
+				if (position <= p) {
+					floor = j;
+				}
+			}
+			assertEquals(ceil, TickSnapper.getCeilIndex(p, origin, radius, length, fractions));
+			assertEquals(floor, TickSnapper.getFloorIndex(p, origin, radius, length, fractions));
+		}
+	}
+}
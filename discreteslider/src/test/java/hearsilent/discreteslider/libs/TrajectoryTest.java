@@ -0,0 +1,57 @@
+package hearsilent.discreteslider.libs;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class TrajectoryTest {
+
+	@Test
+	public void add_dropsOldestWhenFull() {
+		Trajectory trajectory = new Trajectory(4);
+		for (int i = 0; i < 6; i++) {
+			trajectory.add(i, i * 10, -i);
+		}
+		assertEquals(4, trajectory.size());
+		for (int i = 0; i < 4; i++) {
+			assertEquals(i + 2, trajectory.getTime(i));
+			assertEquals((i + 2) * 10, trajectory.getX(i), 0);
+			assertEquals(-(i + 2), trajectory.getY(i), 0);
+		}
+
+		trajectory.clear();
+		assertEquals(0, trajectory.size());
+	}
+
+	@Test
+	public void velocity_linearMotion() {
+		Trajectory trajectory = new Trajectory(32);
+		// 2 px/ms along x and -0.5 px/ms along y, sampled every 4 ms.
+		for (int i = 0; i < 40; i++) {
+			trajectory.add(1000 + i * 4, 100 + i * 8, 50 - i * 2);
+		}
+		assertEquals(2000, trajectory.getVelocityX(100), 0.01f);
+		assertEquals(-500, trajectory.getVelocityY(100), 0.01f);
+	}
+
+	@Test
+	public void velocity_ignoresSamplesOutsideWindow() {
+		Trajectory trajectory = new Trajectory(16);
+		trajectory.add(0, 0, 0);
+		trajectory.add(10, 1000, 0);
+		for (int i = 0; i < 5; i++) {
+			trajectory.add(500 + i * 10, 1000, 0);
+		}
+		assertEquals(0, trajectory.getVelocityX(100), 0);
+	}
+
+	@Test
+	public void velocity_needsTwoSamples() {
+		Trajectory trajectory = new Trajectory(8);
+		assertEquals(0, trajectory.getVelocityX(100), 0);
+		trajectory.add(0, 10, 10);
+		assertEquals(0, trajectory.getVelocityX(100), 0);
+		trajectory.add(0, 20, 20);
+		assertEquals(0, trajectory.getVelocityX(100), 0);
+	}
+}